@@ -0,0 +1,137 @@
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays synthetic, correctly signed LiveKit webhook traffic against a running instance
+ * and reports accepted events per second and request latency.
+ *
+ * Usage (JDK 17+, no build needed):
+ *   java scripts/WebhookReplay.java [url] [events] [concurrency] [rooms]
+ * Signing uses LIVEKIT_API_KEY / LIVEKIT_API_SECRET from the environment, which must
+ * match the server's livekit.api.key / livekit.api.secret.
+ *
+ * Each room goes through room_started, two participant_joined, two participant_left and
+ * room_finished, the shape of an interview2- agent room.
+ */
+public class WebhookReplay {
+
+    private static final String[] LIFECYCLE = {"room_started", "participant_joined", "participant_joined",
+            "participant_left", "participant_left", "room_finished"};
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/api/livekit/webhook";
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 60_000;
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+        int rooms = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+        String apiKey = env("LIVEKIT_API_KEY");
+        byte[] secret = env("LIVEKIT_API_SECRET").getBytes(StandardCharsets.UTF_8);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long[] latencies = new long[events];
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong failures = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int t = 0; t < concurrency; t++) {
+            pool.execute(() -> {
+                int n;
+                while ((n = next.getAndIncrement()) < events) {
+                    // A room's events are rooms requests apart, so they arrive in order while rooms > concurrency
+                    int room = n % rooms;
+                    String kind = LIFECYCLE[(n / rooms) % LIFECYCLE.length];
+                    byte[] body = event(n, kind, room).getBytes(StandardCharsets.UTF_8);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                            .header("Content-Type", "application/webhook+json")
+                            .header("Authorization", sign(apiKey, secret, body))
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                            .build();
+                    long sent = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[n] = System.nanoTime() - sent;
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        int accepted = statuses.getOrDefault(200, new AtomicInteger()).get();
+        System.out.printf("events: %d in %.2f s, concurrency %d%n", events, seconds, concurrency);
+        System.out.printf("throughput: %.0f events/s (%.0f accepted/s)%n", events / seconds, accepted / seconds);
+        System.out.printf("latency ms: p50 %.2f  p99 %.2f  max %.2f%n",
+                latencies[events / 2] / 1e6, latencies[(int) (events * 0.99)] / 1e6, latencies[events - 1] / 1e6);
+        System.out.println("status codes: " + new TreeMap<>(statuses) + ", transport errors: " + failures.get());
+    }
+
+    private static String event(int n, String kind, int room) {
+        String roomJson = "{\"sid\":\"RM_replay" + room + "\",\"name\":\"interview2-replay-" + room
+                + "\",\"emptyTimeout\":300,\"creationTime\":\"" + (System.currentTimeMillis() / 1000) + "\"}";
+        String participant = kind.startsWith("participant_")
+                ? ",\"participant\":{\"sid\":\"PA_replay" + n + "\",\"identity\":\"replay-"
+                + (n % 2 == 0 ? "agent" : "candidate") + "\",\"state\":\"ACTIVE\",\"metadata\":\"\","
+                + "\"permission\":{\"canSubscribe\":true,\"canPublish\":true}}"
+                : "";
+        return "{\"event\":\"" + kind + "\",\"room\":" + roomJson + participant
+                + ",\"id\":\"EV_replay" + System.nanoTime() + "_" + n + "\",\"createdAt\":\""
+                + (System.currentTimeMillis() / 1000) + "\"}";
+    }
+
+    /**
+     * The token LiveKit puts in the Authorization header: HS256, issuer = API key,
+     * claim sha256 = base64(SHA-256(body)).
+     */
+    private static String sign(String apiKey, byte[] secret, byte[] body) {
+        try {
+            Base64.Encoder url = Base64.getUrlEncoder().withoutPadding();
+            String hash = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+            long now = System.currentTimeMillis() / 1000;
+            String header = url.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+            String payload = url.encodeToString(("{\"iss\":\"" + apiKey + "\",\"nbf\":" + (now - 5) + ",\"exp\":"
+                    + (now + 300) + ",\"sha256\":\"" + hash + "\"}").getBytes(StandardCharsets.UTF_8));
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            String signature = url.encodeToString(
+                    mac.doFinal((header + "." + payload).getBytes(StandardCharsets.UTF_8)));
+            return header + "." + payload + "." + signature;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String env(String name) {
+        String value = System.getenv(name);
+        if (value == null || value.isEmpty()) {
+            System.err.println(name + " must be set");
+            System.exit(2);
+        }
+        return value;
+    }
+}
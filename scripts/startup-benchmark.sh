@@ -0,0 +1,64 @@
+#!/usr/bin/env sh
+# Compares the default image with the AOT + class-data-sharing image (target runtime-fast).
+#
+# For each image it starts a container RUNS times and records
+#   - time to first request: docker run -> first 200 from /actuator/health/liveness
+#   - resident memory of the JVM once that first request has been served
+#
+# Usage: ENV_FILE=.env scripts/startup-benchmark.sh [runs]
+# ENV_FILE must hold the same configuration the service gets in production
+# (database, API keys, ...). Prints the median of each metric per image.
+set -eu
+
+RUNS=${1:-5}
+ENV_FILE=${ENV_FILE:-.env}
+HOST_PORT=${HOST_PORT:-18080}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+cd "$(dirname "$0")/.."
+
+docker build -q -t interview-app:baseline --target runtime . >/dev/null
+docker build -q -t interview-app:fast --target runtime-fast . >/dev/null
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { if (NR % 2) print v[(NR + 1) / 2]; else print int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+measure() {
+  image=$1
+  times=""
+  rss=""
+  i=1
+  while [ "$i" -le "$RUNS" ]; do
+    start=$(now_ms)
+    cid=$(docker run -d --env-file "$ENV_FILE" -p "$HOST_PORT:10000" "$image")
+    deadline=$(( start + TIMEOUT_SECONDS * 1000 ))
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$HOST_PORT/actuator/health/liveness")" = "200" ]; do
+      if [ "$(now_ms)" -gt "$deadline" ]; then
+        docker logs "$cid" >&2
+        docker rm -f "$cid" >/dev/null
+        echo "$image did not become live within ${TIMEOUT_SECONDS}s" >&2
+        exit 1
+      fi
+      sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    # java is PID 1 (the entrypoint execs it)
+    kb=$(docker exec "$cid" sh -c "awk '/VmRSS/ { print \$2 }' /proc/1/status")
+    docker rm -f "$cid" >/dev/null
+
+    times="$times$elapsed\n"
+    rss="$rss$(( kb / 1024 ))\n"
+    i=$(( i + 1 ))
+  done
+  printf '%-24s %10s ms %8s MiB\n' "$image" \
+    "$(printf "$times" | median)" "$(printf "$rss" | median)"
+}
+
+printf '%-24s %13s %12s\n' "image (median of $RUNS)" "first request" "RSS"
+measure interview-app:baseline
+measure interview-app:fast
@@ -2,8 +2,10 @@ package com.app.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
 
 @SpringBootApplication
+@PropertySource("classpath:defaults.properties")
 public class DemoApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,120 @@
+package com.app.demo.audio;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Muxes Opus packets into an Ogg Opus stream (RFC 7845) without re-encoding them.
+ * Granule positions are recomputed from the packets actually written, so dropping
+ * packets (silence trimming, segmenting) still yields a valid, correctly timed file.
+ */
+public final class OggOpusWriter {
+
+    private static final int MAX_PAGE_BYTES = 4096;
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int r = i << 24;
+            for (int j = 0; j < 8; j++) {
+                r = (r & 0x80000000) != 0 ? (r << 1) ^ 0x04C11DB7 : r << 1;
+            }
+            CRC_TABLE[i] = r;
+        }
+    }
+
+    private final ByteArrayOutputStream out;
+    private final int serial = ThreadLocalRandom.current().nextInt();
+    private final ByteArrayOutputStream pageBody = new ByteArrayOutputStream(MAX_PAGE_BYTES);
+    private final byte[] lacing = new byte[255];
+    private int lacingCount;
+    private int sequence;
+    private long granule;
+    private int packets;
+
+    public OggOpusWriter(byte[] opusHead, int expectedBytes) {
+        this.out = new ByteArrayOutputStream(Math.max(1024, expectedBytes));
+        writeSinglePacketPage(opusHead, 0x02);
+        byte[] vendor = "interview-audio".getBytes(StandardCharsets.US_ASCII);
+        byte[] tags = new byte[8 + 4 + vendor.length + 4];
+        System.arraycopy("OpusTags".getBytes(StandardCharsets.US_ASCII), 0, tags, 0, 8);
+        tags[8] = (byte) vendor.length;
+        System.arraycopy(vendor, 0, tags, 12, vendor.length);
+        writeSinglePacketPage(tags, 0x00);
+    }
+
+    public void write(byte[] packet, int samples) {
+        int segments = packet.length / 255 + 1;
+        if (lacingCount + segments > 255 || pageBody.size() + packet.length > MAX_PAGE_BYTES) {
+            flushPage(0x00);
+        }
+        for (int i = 0; i < segments - 1; i++) {
+            lacing[lacingCount++] = (byte) 255;
+        }
+        lacing[lacingCount++] = (byte) (packet.length % 255);
+        pageBody.write(packet, 0, packet.length);
+        granule += samples;
+        packets++;
+    }
+
+    public int packetCount() {
+        return packets;
+    }
+
+    public byte[] finish() {
+        flushPage(0x04);
+        return out.toByteArray();
+    }
+
+    private void writeSinglePacketPage(byte[] packet, int headerType) {
+        for (int remaining = packet.length; ; remaining -= 255) {
+            lacing[lacingCount++] = (byte) Math.min(remaining, 255);
+            if (remaining < 255) break;
+        }
+        pageBody.write(packet, 0, packet.length);
+        flushPage(headerType);
+    }
+
+    private void flushPage(int headerType) {
+        if (lacingCount == 0 && headerType != 0x04) {
+            return;
+        }
+        byte[] page = new byte[27 + lacingCount + pageBody.size()];
+        page[0] = 'O';
+        page[1] = 'g';
+        page[2] = 'g';
+        page[3] = 'S';
+        page[4] = 0;
+        page[5] = (byte) headerType;
+        long gp = sequence < 2 ? 0 : granule;
+        for (int i = 0; i < 8; i++) {
+            page[6 + i] = (byte) (gp >>> (8 * i));
+        }
+        putInt(page, 14, serial);
+        putInt(page, 18, sequence++);
+        page[26] = (byte) lacingCount;
+        System.arraycopy(lacing, 0, page, 27, lacingCount);
+        byte[] body = pageBody.toByteArray();
+        System.arraycopy(body, 0, page, 27 + lacingCount, body.length);
+        putInt(page, 22, crc(page));
+        out.write(page, 0, page.length);
+        pageBody.reset();
+        lacingCount = 0;
+    }
+
+    private static int crc(byte[] page) {
+        int crc = 0;
+        for (byte b : page) {
+            crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) & 0xFF) ^ (b & 0xFF)];
+        }
+        return crc;
+    }
+
+    private static void putInt(byte[] b, int at, int v) {
+        b[at] = (byte) v;
+        b[at + 1] = (byte) (v >> 8);
+        b[at + 2] = (byte) (v >> 16);
+        b[at + 3] = (byte) (v >> 24);
+    }
+}
@@ -0,0 +1,49 @@
+package com.app.demo.audio;
+
+/**
+ * Helpers for reading the Opus TOC byte (RFC 6716 section 3.1).
+ */
+public final class OpusPackets {
+
+    private static final int[] SILK_SAMPLES = {480, 960, 1920, 2880};
+    private static final int[] HYBRID_SAMPLES = {480, 960};
+    private static final int[] CELT_SAMPLES = {120, 240, 480, 960};
+
+    private OpusPackets() {
+    }
+
+    /**
+     * @return decoded duration of the packet in 48 kHz samples, or 0 if it is malformed
+     */
+    public static int samples(byte[] data, int offset, int length) {
+        if (length < 1) {
+            return 0;
+        }
+        int toc = data[offset] & 0xFF;
+        int config = toc >> 3;
+        int frameSamples = config < 12 ? SILK_SAMPLES[config & 3]
+                : config < 16 ? HYBRID_SAMPLES[config & 1]
+                : CELT_SAMPLES[config & 3];
+        int frames = switch (toc & 3) {
+            case 0 -> 1;
+            case 1, 2 -> 2;
+            default -> length < 2 ? 0 : data[offset + 1] & 0x3F;
+        };
+        return frameSamples * frames;
+    }
+
+    public static byte[] defaultHead(int channels) {
+        byte[] head = new byte[19];
+        System.arraycopy("OpusHead".getBytes(java.nio.charset.StandardCharsets.US_ASCII), 0, head, 0, 8);
+        head[8] = 1;
+        head[9] = (byte) channels;
+        head[10] = (byte) 0x38;
+        head[11] = (byte) 0x01;
+        int rate = 48_000;
+        head[12] = (byte) rate;
+        head[13] = (byte) (rate >> 8);
+        head[14] = (byte) (rate >> 16);
+        head[15] = (byte) (rate >> 24);
+        return head;
+    }
+}
@@ -0,0 +1,118 @@
+package com.app.demo.audio;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Splits a live audio stream into standalone segments at pauses so each one can be
+ * transcribed while the candidate is still speaking. A segment is cut once a pause of
+ * {@code pauseMillis} follows enough speech, or when it reaches {@code maxSegmentMillis}.
+ * Silence before a segment is kept only as a short pre-roll.
+ *
+ * @param <F> frame type
+ */
+public final class PauseSegmenter<F> {
+
+    public interface SegmentEncoder<F> {
+        void write(F frame);
+
+        byte[] finish();
+    }
+
+    private final VoiceActivityDetector vad;
+    private final Supplier<SegmentEncoder<F>> encoders;
+    private final Consumer<byte[]> segmentSink;
+    private final double pauseMillis;
+    private final double minSpeechMillis;
+    private final double maxSegmentMillis;
+    private final int preRollFrames;
+    private final ArrayDeque<F> preRoll;
+
+    private SegmentEncoder<F> current;
+    private double segmentMillis;
+    private double speechMillis;
+    private double silenceRun;
+    private int segments;
+
+    public PauseSegmenter(VoiceActivityDetector vad, Supplier<SegmentEncoder<F>> encoders,
+                          Consumer<byte[]> segmentSink, double pauseMillis, double minSpeechMillis,
+                          double maxSegmentMillis, int preRollFrames) {
+        this.vad = vad;
+        this.encoders = encoders;
+        this.segmentSink = segmentSink;
+        this.pauseMillis = pauseMillis;
+        this.minSpeechMillis = minSpeechMillis;
+        this.maxSegmentMillis = maxSegmentMillis;
+        this.preRollFrames = preRollFrames;
+        this.preRoll = new ArrayDeque<>(Math.max(1, preRollFrames));
+    }
+
+    public void accept(F frame, double level, double durationMillis) {
+        boolean voiced = vad.isVoiced(level);
+        if (current == null) {
+            if (!voiced) {
+                if (preRoll.size() == preRollFrames) {
+                    preRoll.pollFirst();
+                }
+                if (preRollFrames > 0) {
+                    preRoll.addLast(frame);
+                }
+                return;
+            }
+            current = encoders.get();
+            F buffered;
+            while ((buffered = preRoll.pollFirst()) != null) {
+                current.write(buffered);
+                segmentMillis += durationMillis;
+            }
+        }
+
+        current.write(frame);
+        segmentMillis += durationMillis;
+        if (voiced) {
+            speechMillis += durationMillis;
+            silenceRun = 0;
+        } else {
+            silenceRun += durationMillis;
+        }
+
+        boolean pauseAfterSpeech = silenceRun >= pauseMillis && speechMillis >= minSpeechMillis;
+        if (pauseAfterSpeech || silenceRun >= 3 * pauseMillis || segmentMillis >= maxSegmentMillis) {
+            cut();
+        }
+    }
+
+    /**
+     * Emits the final segment, if it contains speech. Called when the candidate stops.
+     */
+    public void finish() {
+        if (current != null && speechMillis > 0) {
+            cut();
+        }
+        current = null;
+        preRoll.clear();
+    }
+
+    public int segmentCount() {
+        return segments;
+    }
+
+    /**
+     * Duration of the segment currently being collected, i.e. what is still left to
+     * transcribe if the stream ended now.
+     */
+    public double pendingMillis() {
+        return current == null ? 0 : segmentMillis;
+    }
+
+    private void cut() {
+        byte[] encoded = current.finish();
+        current = null;
+        segmentMillis = 0;
+        speechMillis = 0;
+        silenceRun = 0;
+        segments++;
+        segmentSink.accept(encoded);
+    }
+}
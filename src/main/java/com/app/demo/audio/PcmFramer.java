@@ -0,0 +1,88 @@
+package com.app.demo.audio;
+
+import java.util.function.Consumer;
+
+/**
+ * Turns mono float samples at any input rate into fixed 20 ms frames of 16 kHz
+ * 16-bit PCM. Downsampling low-passes with two cascaded one-pole filters before
+ * linear interpolation, which is plenty for speech recognition.
+ */
+public final class PcmFramer {
+
+    public static final int OUTPUT_RATE = 16_000;
+    public static final int FRAME_SAMPLES = OUTPUT_RATE / 50;
+    public static final double FRAME_MILLIS = 20.0;
+
+    private final Consumer<short[]> sink;
+    private final double step;
+    private final double alpha;
+    private final boolean filter;
+
+    private double lp1;
+    private double lp2;
+    private double prev;
+    private double pos;
+    private boolean primed;
+    private short[] frame = new short[FRAME_SAMPLES];
+    private int frameFill;
+
+    public PcmFramer(int inputRate, Consumer<short[]> sink) {
+        this.sink = sink;
+        this.step = (double) inputRate / OUTPUT_RATE;
+        this.filter = inputRate > OUTPUT_RATE;
+        double cutoff = OUTPUT_RATE * 0.45;
+        this.alpha = 1 - Math.exp(-2 * Math.PI * cutoff / inputRate);
+    }
+
+    public void accept(float[] samples, int count) {
+        for (int i = 0; i < count; i++) {
+            double x = samples[i];
+            if (filter) {
+                lp1 += alpha * (x - lp1);
+                lp2 += alpha * (lp1 - lp2);
+                x = lp2;
+            }
+            if (!primed) {
+                prev = x;
+                primed = true;
+                continue;
+            }
+            while (pos < 1.0) {
+                push(prev + (x - prev) * pos);
+                pos += step;
+            }
+            pos -= 1.0;
+            prev = x;
+        }
+    }
+
+    /**
+     * Emits the final partial frame, zero-padded to full length.
+     */
+    public void finish() {
+        if (frameFill > 0) {
+            sink.accept(frame);
+            frame = new short[FRAME_SAMPLES];
+            frameFill = 0;
+        }
+    }
+
+    public static double rms(short[] frame) {
+        double sum = 0;
+        for (short s : frame) {
+            double v = s / 32768.0;
+            sum += v * v;
+        }
+        return Math.sqrt(sum / frame.length);
+    }
+
+    private void push(double sample) {
+        double clamped = Math.max(-1.0, Math.min(1.0, sample));
+        frame[frameFill++] = (short) Math.round(clamped * 32767);
+        if (frameFill == FRAME_SAMPLES) {
+            sink.accept(frame);
+            frame = new short[FRAME_SAMPLES];
+            frameFill = 0;
+        }
+    }
+}
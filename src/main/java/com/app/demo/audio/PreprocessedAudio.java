@@ -0,0 +1,20 @@
+package com.app.demo.audio;
+
+/**
+ * Result of {@code AudioPreprocessor}: the bytes to upload plus what was saved.
+ */
+public record PreprocessedAudio(byte[] data, String filename, boolean hasSpeech,
+                                int originalBytes, long originalMillis, long outputMillis, long processingMillis) {
+
+    public static PreprocessedAudio passthrough(byte[] data, String filename, long processingMillis) {
+        return new PreprocessedAudio(data, filename, true, data.length, -1, -1, processingMillis);
+    }
+
+    public int bytesSaved() {
+        return originalBytes - data.length;
+    }
+
+    public long millisTrimmed() {
+        return originalMillis < 0 ? 0 : originalMillis - outputMillis;
+    }
+}
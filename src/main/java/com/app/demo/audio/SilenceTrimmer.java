@@ -0,0 +1,95 @@
+package com.app.demo.audio;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Streaming silence gate. Leading and trailing silence is dropped, a short pre-roll is
+ * kept before the first voiced frame and a hangover after each voiced run, and pauses
+ * inside the answer are shortened to at most {@code hangover + maxGap}. Only the capped
+ * gap buffer is held in memory.
+ *
+ * @param <F> frame type passed through unchanged to the sink
+ */
+public final class SilenceTrimmer<F> {
+
+    private final VoiceActivityDetector vad;
+    private final Consumer<F> sink;
+    private final int preRollFrames;
+    private final int hangoverFrames;
+    private final int maxGapFrames;
+    private final ArrayDeque<Frame<F>> gap;
+
+    private boolean started;
+    private int hangoverLeft;
+    private double inputMillis;
+    private double outputMillis;
+
+    public SilenceTrimmer(VoiceActivityDetector vad, Consumer<F> sink,
+                          int preRollFrames, int hangoverFrames, int maxGapFrames) {
+        this.vad = vad;
+        this.sink = sink;
+        this.preRollFrames = preRollFrames;
+        this.hangoverFrames = hangoverFrames;
+        this.maxGapFrames = Math.max(maxGapFrames, preRollFrames);
+        this.gap = new ArrayDeque<>(this.maxGapFrames);
+    }
+
+    /**
+     * @return whether the frame was classified as voiced
+     */
+    public boolean accept(F frame, double level, double durationMillis) {
+        inputMillis += durationMillis;
+        boolean voiced = vad.isVoiced(level);
+
+        if (voiced) {
+            int keep = started ? gap.size() : Math.min(gap.size(), preRollFrames);
+            while (gap.size() > keep) {
+                gap.pollFirst();
+            }
+            Frame<F> buffered;
+            while ((buffered = gap.pollFirst()) != null) {
+                emit(buffered.frame, buffered.durationMillis);
+            }
+            started = true;
+            hangoverLeft = hangoverFrames;
+            emit(frame, durationMillis);
+        } else if (started && hangoverLeft > 0) {
+            hangoverLeft--;
+            emit(frame, durationMillis);
+        } else {
+            if (gap.size() == maxGapFrames) {
+                gap.pollFirst();
+            }
+            gap.addLast(new Frame<>(frame, durationMillis));
+        }
+        return voiced;
+    }
+
+    /**
+     * Discards whatever silence is still buffered; it is by definition trailing.
+     */
+    public void finish() {
+        gap.clear();
+    }
+
+    public boolean hasSpeech() {
+        return started;
+    }
+
+    public long inputMillis() {
+        return Math.round(inputMillis);
+    }
+
+    public long outputMillis() {
+        return Math.round(outputMillis);
+    }
+
+    private void emit(F frame, double durationMillis) {
+        outputMillis += durationMillis;
+        sink.accept(frame);
+    }
+
+    private record Frame<F>(F frame, double durationMillis) {
+    }
+}
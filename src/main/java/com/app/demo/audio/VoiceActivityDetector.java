@@ -0,0 +1,32 @@
+package com.app.demo.audio;
+
+/**
+ * Energy-based voice activity detection with an adaptive noise floor. The floor follows
+ * quiet frames quickly and drifts up only slowly, so steady background noise is learned
+ * without sustained speech being absorbed into it. Levels are unit-agnostic: RMS amplitude
+ * for PCM, bytes per frame for compressed packets.
+ */
+public final class VoiceActivityDetector {
+
+    private final double minLevel;
+    private final double ratio;
+    private double floor;
+
+    public VoiceActivityDetector(double minLevel, double ratio) {
+        this.minLevel = minLevel;
+        this.ratio = ratio;
+        this.floor = minLevel;
+    }
+
+    public boolean isVoiced(double level) {
+        boolean voiced = level >= minLevel && level > floor * ratio;
+        if (level < floor) {
+            floor = Math.max(minLevel * 0.1, floor + (level - floor) * 0.5);
+        } else if (!voiced) {
+            floor += (level - floor) * 0.05;
+        } else {
+            floor += (level - floor) * 0.0005;
+        }
+        return voiced;
+    }
+}
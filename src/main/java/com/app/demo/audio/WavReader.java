@@ -0,0 +1,162 @@
+package com.app.demo.audio;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Minimal streaming RIFF/WAVE decoder for integer PCM (8/16/24/32-bit) and 32-bit float,
+ * including WAVE_FORMAT_EXTENSIBLE. Samples are downmixed to mono floats in blocks so
+ * memory use does not depend on the clip length.
+ */
+public final class WavReader {
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final int BLOCK_FRAMES = 4096;
+
+    private final DataInputStream in;
+    private int format;
+    private int channels;
+    private int sampleRate;
+    private int bitsPerSample;
+    private long dataRemaining;
+
+    public WavReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        readHeader();
+    }
+
+    public static boolean isWav(byte[] data) {
+        return data.length >= 12
+                && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'A' && data[10] == 'V' && data[11] == 'E';
+    }
+
+    public int sampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Reads up to one block of frames, downmixed to mono.
+     *
+     * @return number of samples written to {@code out}, or -1 at end of data
+     */
+    public int read(float[] out) throws IOException {
+        int bytesPerSample = bitsPerSample / 8;
+        int frameBytes = bytesPerSample * channels;
+        int frames = (int) Math.min(Math.min(out.length, BLOCK_FRAMES), dataRemaining / frameBytes);
+        if (frames <= 0) {
+            return -1;
+        }
+        byte[] raw = new byte[frames * frameBytes];
+        int read = in.readNBytes(raw, 0, raw.length);
+        frames = read / frameBytes;
+        if (frames == 0) {
+            return -1;
+        }
+        dataRemaining -= (long) frames * frameBytes;
+
+        for (int f = 0; f < frames; f++) {
+            double sum = 0;
+            int base = f * frameBytes;
+            for (int c = 0; c < channels; c++) {
+                sum += sample(raw, base + c * bytesPerSample);
+            }
+            out[f] = (float) (sum / channels);
+        }
+        return frames;
+    }
+
+    private double sample(byte[] b, int i) {
+        switch (bitsPerSample) {
+            case 8:
+                return ((b[i] & 0xFF) - 128) / 128.0;
+            case 16:
+                return (short) ((b[i] & 0xFF) | (b[i + 1] << 8)) / 32768.0;
+            case 24:
+                return ((b[i] & 0xFF) | ((b[i + 1] & 0xFF) << 8) | (b[i + 2] << 16)) / 8388608.0;
+            default:
+                int bits = (b[i] & 0xFF) | ((b[i + 1] & 0xFF) << 8) | ((b[i + 2] & 0xFF) << 16) | (b[i + 3] << 24);
+                return format == FORMAT_FLOAT ? Float.intBitsToFloat(bits) : bits / 2147483648.0;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        if (readTag() != tag("RIFF")) {
+            throw new IOException("Not a RIFF file");
+        }
+        readIntLE();
+        if (readTag() != tag("WAVE")) {
+            throw new IOException("Not a WAVE file");
+        }
+        boolean haveFormat = false;
+        while (true) {
+            int id;
+            long size;
+            try {
+                id = readTag();
+                size = readIntLE() & 0xFFFFFFFFL;
+            } catch (EOFException e) {
+                throw new IOException("WAVE file has no data chunk");
+            }
+            if (id == tag("fmt ")) {
+                format = readShortLE();
+                channels = readShortLE();
+                sampleRate = readIntLE();
+                readIntLE();
+                readShortLE();
+                bitsPerSample = readShortLE();
+                long consumed = 16;
+                if (format == FORMAT_EXTENSIBLE && size >= 40) {
+                    readShortLE();
+                    readShortLE();
+                    readIntLE();
+                    format = readShortLE();
+                    consumed = 26;
+                }
+                skip(size - consumed + (size & 1));
+                haveFormat = true;
+            } else if (id == tag("data")) {
+                if (!haveFormat) {
+                    throw new IOException("WAVE data chunk before fmt chunk");
+                }
+                if (format != FORMAT_PCM && !(format == FORMAT_FLOAT && bitsPerSample == 32)) {
+                    throw new IOException("Unsupported WAVE format " + format);
+                }
+                if (channels < 1 || bitsPerSample % 8 != 0 || bitsPerSample < 8 || bitsPerSample > 32) {
+                    throw new IOException("Unsupported WAVE layout");
+                }
+                // Streaming writers leave the size at 0 or 0xFFFFFFFF; read to end of input then
+                dataRemaining = size == 0 || size == 0xFFFFFFFFL ? Long.MAX_VALUE : size;
+                return;
+            } else {
+                skip(size + (size & 1));
+            }
+        }
+    }
+
+    private int readTag() throws IOException {
+        return in.readInt();
+    }
+
+    private static int tag(String s) {
+        return (s.charAt(0) << 24) | (s.charAt(1) << 16) | (s.charAt(2) << 8) | s.charAt(3);
+    }
+
+    private int readIntLE() throws IOException {
+        return Integer.reverseBytes(in.readInt());
+    }
+
+    private int readShortLE() throws IOException {
+        return Short.reverseBytes(in.readShort()) & 0xFFFF;
+    }
+
+    private void skip(long n) throws IOException {
+        if (n > 0) {
+            in.skipNBytes(n);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.demo.audio;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Writes 16 kHz mono 16-bit PCM frames into an in-memory WAVE file.
+ */
+public final class WavWriter {
+
+    private final ByteArrayOutputStream out;
+    private final byte[] scratch = new byte[PcmFramer.FRAME_SAMPLES * 2];
+    private int dataBytes;
+
+    public WavWriter(int expectedBytes) {
+        this.out = new ByteArrayOutputStream(Math.max(1024, expectedBytes + 44));
+        out.writeBytes(new byte[44]);
+    }
+
+    public void write(short[] frame) {
+        for (int i = 0; i < frame.length; i++) {
+            scratch[2 * i] = (byte) frame[i];
+            scratch[2 * i + 1] = (byte) (frame[i] >> 8);
+        }
+        out.write(scratch, 0, frame.length * 2);
+        dataBytes += frame.length * 2;
+    }
+
+    public byte[] finish() {
+        byte[] wav = out.toByteArray();
+        int rate = PcmFramer.OUTPUT_RATE;
+        putTag(wav, 0, "RIFF");
+        putInt(wav, 4, 36 + dataBytes);
+        putTag(wav, 8, "WAVE");
+        putTag(wav, 12, "fmt ");
+        putInt(wav, 16, 16);
+        putShort(wav, 20, 1);
+        putShort(wav, 22, 1);
+        putInt(wav, 24, rate);
+        putInt(wav, 28, rate * 2);
+        putShort(wav, 32, 2);
+        putShort(wav, 34, 16);
+        putTag(wav, 36, "data");
+        putInt(wav, 40, dataBytes);
+        return wav;
+    }
+
+    private static void putTag(byte[] b, int at, String tag) {
+        for (int i = 0; i < 4; i++) {
+            b[at + i] = (byte) tag.charAt(i);
+        }
+    }
+
+    private static void putInt(byte[] b, int at, int v) {
+        b[at] = (byte) v;
+        b[at + 1] = (byte) (v >> 8);
+        b[at + 2] = (byte) (v >> 16);
+        b[at + 3] = (byte) (v >> 24);
+    }
+
+    private static void putShort(byte[] b, int at, int v) {
+        b[at] = (byte) v;
+        b[at + 1] = (byte) (v >> 8);
+    }
+}
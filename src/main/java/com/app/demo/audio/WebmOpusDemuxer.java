@@ -0,0 +1,234 @@
+package com.app.demo.audio;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Push-based WebM/Matroska demuxer that extracts the Opus packets of the first Opus
+ * audio track. Bytes can be fed in arbitrary chunks (as MediaRecorder produces them);
+ * master elements are descended into inline, unknown sizes are tolerated, and elements
+ * we do not need are skipped without being buffered, so memory stays bounded by the
+ * largest block.
+ */
+public final class WebmOpusDemuxer {
+
+    public interface Listener {
+        /**
+         * Called once, before the first packet, with the OpusHead from CodecPrivate.
+         */
+        void onHeader(byte[] opusHead);
+
+        void onPacket(byte[] packet);
+    }
+
+    private static final int ID_SEGMENT = 0x18538067;
+    private static final int ID_CLUSTER = 0x1F43B675;
+    private static final int ID_TRACKS = 0x1654AE6B;
+    private static final int ID_TRACK_ENTRY = 0xAE;
+    private static final int ID_TRACK_NUMBER = 0xD7;
+    private static final int ID_CODEC_ID = 0x86;
+    private static final int ID_CODEC_PRIVATE = 0x63A2;
+    private static final int ID_AUDIO = 0xE1;
+    private static final int ID_CHANNELS = 0x9F;
+    private static final int ID_BLOCK_GROUP = 0xA0;
+    private static final int ID_BLOCK = 0xA1;
+    private static final int ID_SIMPLE_BLOCK = 0xA3;
+    private static final int MAX_ELEMENT_BYTES = 1 << 20;
+
+    private final Listener listener;
+    private byte[] buf = new byte[8192];
+    private int start;
+    private int end;
+    private long skipRemaining;
+
+    private long entryNumber = -1;
+    private String entryCodec;
+    private byte[] entryPrivate;
+    private int entryChannels = 1;
+    private long opusTrack = -1;
+    private boolean headerSent;
+
+    public WebmOpusDemuxer(Listener listener) {
+        this.listener = listener;
+    }
+
+    public static boolean isWebm(byte[] data) {
+        return data.length >= 4 && (data[0] & 0xFF) == 0x1A && (data[1] & 0xFF) == 0x45
+                && (data[2] & 0xFF) == 0xDF && (data[3] & 0xFF) == 0xA3;
+    }
+
+    public void feed(byte[] chunk, int offset, int length) throws IOException {
+        while (length > 0 && skipRemaining > 0) {
+            int n = (int) Math.min(skipRemaining, length);
+            skipRemaining -= n;
+            offset += n;
+            length -= n;
+        }
+        append(chunk, offset, length);
+        parse();
+    }
+
+    public boolean foundOpusTrack() {
+        return opusTrack >= 0;
+    }
+
+    private void parse() throws IOException {
+        while (true) {
+            if (skipRemaining > 0) {
+                int n = (int) Math.min(skipRemaining, end - start);
+                start += n;
+                skipRemaining -= n;
+                if (skipRemaining > 0) {
+                    return;
+                }
+            }
+            int p = start;
+            int idLength = vintLength(p);
+            if (idLength < 0 || p + idLength > end) return;
+            int id = (int) readRaw(p, idLength);
+            p += idLength;
+            int sizeLength = vintLength(p);
+            if (sizeLength < 0 || p + sizeLength > end) return;
+            long size = readRaw(p, sizeLength) & ((1L << (7 * sizeLength)) - 1);
+            boolean unknownSize = size == (1L << (7 * sizeLength)) - 1;
+            p += sizeLength;
+
+            switch (id) {
+                case ID_SEGMENT, ID_CLUSTER, ID_TRACKS, ID_BLOCK_GROUP, ID_AUDIO -> {
+                    if (id == ID_CLUSTER) commitTrackEntry();
+                    start = p;
+                    continue;
+                }
+                case ID_TRACK_ENTRY -> {
+                    commitTrackEntry();
+                    start = p;
+                    continue;
+                }
+                default -> { }
+            }
+
+            if (unknownSize) {
+                throw new IOException(String.format("WebM element 0x%X has unknown size", id));
+            }
+            boolean wanted = id == ID_TRACK_NUMBER || id == ID_CODEC_ID || id == ID_CODEC_PRIVATE
+                    || id == ID_CHANNELS || id == ID_BLOCK || id == ID_SIMPLE_BLOCK;
+            if (!wanted) {
+                start = p;
+                skipRemaining = size;
+                continue;
+            }
+            if (size > MAX_ELEMENT_BYTES) {
+                throw new IOException("WebM element too large: " + size);
+            }
+            if (p + size > end) return;
+            handle(id, p, (int) size);
+            start = p + (int) size;
+        }
+    }
+
+    private void handle(int id, int p, int size) {
+        switch (id) {
+            case ID_TRACK_NUMBER -> entryNumber = readRaw(p, size);
+            case ID_CHANNELS -> entryChannels = (int) readRaw(p, size);
+            case ID_CODEC_ID -> entryCodec = new String(buf, p, size, StandardCharsets.US_ASCII).trim();
+            case ID_CODEC_PRIVATE -> entryPrivate = Arrays.copyOfRange(buf, p, p + size);
+            default -> block(p, size);
+        }
+    }
+
+    private void commitTrackEntry() {
+        if (opusTrack < 0 && "A_OPUS".equals(entryCodec) && entryNumber >= 0) {
+            opusTrack = entryNumber;
+            listener.onHeader(entryPrivate != null ? entryPrivate : OpusPackets.defaultHead(entryChannels));
+            headerSent = true;
+        }
+        entryNumber = -1;
+        entryCodec = null;
+        entryPrivate = null;
+        entryChannels = 1;
+    }
+
+    private void block(int p, int size) {
+        if (!headerSent) {
+            commitTrackEntry();
+        }
+        int limit = p + size;
+        int trackLength = vintLength(p);
+        if (trackLength < 0 || p + trackLength + 3 > limit) return;
+        long track = readRaw(p, trackLength) & ((1L << (7 * trackLength)) - 1);
+        if (track != opusTrack) return;
+        p += trackLength + 2;
+        int lacing = (buf[p++] >> 1) & 0x03;
+        if (lacing == 0) {
+            listener.onPacket(Arrays.copyOfRange(buf, p, limit));
+            return;
+        }
+
+        int frames = (buf[p++] & 0xFF) + 1;
+        int[] sizes = new int[frames];
+        if (lacing == 2) {
+            Arrays.fill(sizes, (limit - p) / frames);
+        } else if (lacing == 1) {
+            int total = 0;
+            for (int i = 0; i < frames - 1; i++) {
+                int s = 0;
+                int b;
+                do {
+                    b = buf[p++] & 0xFF;
+                    s += b;
+                } while (b == 255);
+                sizes[i] = s;
+                total += s;
+            }
+            sizes[frames - 1] = limit - p - total;
+        } else {
+            int len = vintLength(p);
+            long first = readRaw(p, len) & ((1L << (7 * len)) - 1);
+            p += len;
+            sizes[0] = (int) first;
+            int total = sizes[0];
+            for (int i = 1; i < frames - 1; i++) {
+                len = vintLength(p);
+                long raw = readRaw(p, len) & ((1L << (7 * len)) - 1);
+                p += len;
+                sizes[i] = sizes[i - 1] + (int) (raw - ((1L << (7 * len - 1)) - 1));
+                total += sizes[i];
+            }
+            sizes[frames - 1] = limit - p - total;
+        }
+        for (int s : sizes) {
+            if (s < 0 || p + s > limit) return;
+            listener.onPacket(Arrays.copyOfRange(buf, p, p + s));
+            p += s;
+        }
+    }
+
+    private int vintLength(int p) {
+        if (p >= end) return -1;
+        int first = buf[p] & 0xFF;
+        if (first == 0) return -1;
+        return Integer.numberOfLeadingZeros(first) - 23;
+    }
+
+    private long readRaw(int p, int length) {
+        long v = 0;
+        for (int i = 0; i < length; i++) {
+            v = (v << 8) | (buf[p + i] & 0xFF);
+        }
+        return v;
+    }
+
+    private void append(byte[] chunk, int offset, int length) {
+        if (start > 0 && end + length > buf.length) {
+            System.arraycopy(buf, start, buf, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (end + length > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, end + length));
+        }
+        System.arraycopy(chunk, offset, buf, end, length);
+        end += length;
+    }
+}
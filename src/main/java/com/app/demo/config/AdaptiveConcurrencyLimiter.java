@@ -0,0 +1,106 @@
+package com.app.demo.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gradient-style concurrency limit. Latency is sampled per window; the limit shrinks by
+ * the ratio of the long-term baseline to the current window's average latency (queueing
+ * shows up as rising latency) and grows by a √limit headroom while latency stays near
+ * the baseline. Growth is skipped while the group is not using half its limit.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_WINDOW_ALPHA = 0.05;
+    private static final long WINDOW_NANOS = 500_000_000L;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private double longRtt;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot, or returns -1 if the group is at its limit. The returned value is the
+     * in-flight count including this request, to be passed back to {@link #release}.
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        sample(rttNanos, inFlightAtStart);
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtStart) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+
+        long now = System.nanoTime();
+        if (now - windowStart < WINDOW_NANOS || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowSamples;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += LONG_WINDOW_ALPHA * (shortRtt - longRtt);
+            if (longRtt > shortRtt * 2) {
+                // Latency dropped for good (e.g. a slow dependency recovered): let the baseline follow
+                longRtt *= 0.95;
+            }
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double next = current * gradient + Math.sqrt(current);
+        if (next > current && windowMaxInFlight < current / 2) {
+            next = current;
+        }
+        next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long rejected() {
+        return rejected.get();
+    }
+}
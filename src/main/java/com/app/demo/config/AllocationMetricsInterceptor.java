@@ -0,0 +1,56 @@
+package com.app.demo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Records the bytes allocated by the request thread between handler entry and completion
+ * as {@code http.server.requests.allocated}, tagged like Spring's own request metrics so
+ * the two can be compared per endpoint.
+ */
+public class AllocationMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = AllocationMetricsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    public AllocationMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.threadMXBean = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()
+                ? bean : null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (threadMXBean != null) {
+            request.setAttribute(START_ATTRIBUTE, threadMXBean.getCurrentThreadAllocatedBytes());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (threadMXBean == null || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - start;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        DistributionSummary.builder("http.server.requests.allocated")
+                .baseUnit("bytes")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(allocated);
+    }
+}
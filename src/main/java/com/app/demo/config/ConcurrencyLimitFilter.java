@@ -0,0 +1,162 @@
+package com.app.demo.config;
+
+import com.app.demo.model.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load per API area instead of letting Tomcat queue it: each path prefix has its
+ * own {@link AdaptiveConcurrencyLimiter}, and a request arriving while its group is at
+ * the limit gets an immediate 503 with Retry-After. Registered ahead of Spring Security
+ * in {@link WebConfig}, so rejected requests cost next to nothing; the rejection carries
+ * the same CORS headers Security would have added, so browsers can read it. Preflights
+ * are not limited. A request that goes async (a streamed body) holds its slot until the
+ * async processing completes.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Map<String, AdaptiveConcurrencyLimiter> groups = new LinkedHashMap<>();
+    private final byte[] rejectionBody;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper, CorsConfigurationSource corsConfigurationSource)
+            throws IOException {
+        this.rejectionBody = objectMapper.writeValueAsBytes(new ErrorResponse("Server is busy, please retry shortly"));
+        this.corsConfigurationSource = corsConfigurationSource;
+    }
+
+    /**
+     * Adds a limit group for requests whose URI starts with {@code prefix}.
+     */
+    public void addGroup(String name, String prefix, int initialLimit, int minLimit, int maxLimit,
+                         MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        groups.put(prefix, limiter);
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", name)
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests currently being processed")
+                .tag("group", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("http.server.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::rejected)
+                .description("Requests rejected with 503 because the group was at its limit")
+                .tag("group", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request.getRequestURI());
+        if (limiter == null || CorsUtils.isPreFlightRequest(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            CorsConfiguration cors = corsConfigurationSource.getCorsConfiguration(request);
+            if (cors != null && !corsProcessor.processRequest(cors, request, response)) {
+                return; // origin not allowed; the processor has already answered 403
+            }
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(rejectionBody.length);
+            response.getOutputStream().write(rejectionBody);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter, start, inFlight));
+            } else {
+                limiter.release(System.nanoTime() - start, inFlight);
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of an async request once, on whichever of timeout, error or
+     * completion is reported first.
+     */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final int inFlight;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(AdaptiveConcurrencyLimiter limiter, long start, int inFlight) {
+            this.limiter = limiter;
+            this.start = start;
+            this.inFlight = inFlight;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start, inFlight);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-dispatches keep the original slot
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String uri) {
+        for (Map.Entry<String, AdaptiveConcurrencyLimiter> group : groups.entrySet()) {
+            if (uri.startsWith(group.getKey())) {
+                return group.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.app.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary/replica routing. When {@code app.datasource.replica.url} is set, connections
+ * for read-only transactions (e.g. {@code UserRepository.findByEmail}) come from a
+ * separate replica pool and everything else from the primary. The lazy proxy delays
+ * fetching a physical connection until the first statement, by which time the
+ * transaction's read-only flag is known. Without a replica URL all traffic goes to
+ * the primary, exactly as before.
+ * <p>
+ * Replica settings: {@code app.datasource.replica.url/username/password} (credentials
+ * default to the primary's) and pool tuning under {@code app.datasource.replica.hikari.*}.
+ * For local testing point both at two Postgres (or H2) instances.
+ */
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, DataSourceProperties primaryProperties,
+                                 Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties replicaProperties = binder
+                .bind("app.datasource.replica", DataSourceProperties.class)
+                .orElse(null);
+        if (replicaProperties == null || !StringUtils.hasText(replicaProperties.getUrl())) {
+            return new LazyConnectionDataSourceProxy(primaryDataSource);
+        }
+
+        if (replicaProperties.getUsername() == null) {
+            replicaProperties.setUsername(primaryProperties.determineUsername());
+            replicaProperties.setPassword(primaryProperties.determinePassword());
+        }
+        HikariDataSource replica = replicaProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+        if (replica.getPoolName() == null) {
+            replica.setPoolName("replica");
+        }
+        replica.setReadOnly(true);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        log.info("Routing read-only transactions to replica {}", replicaProperties.getUrl());
+
+        ReadWriteDataSource routing = new ReadWriteDataSource(primaryDataSource, replica);
+        routing.setReadOnlyDataSource(replica);
+        return routing;
+    }
+
+    /**
+     * Closes the replica pool with the context; the primary pool is its own bean.
+     */
+    static final class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final HikariDataSource replica;
+
+        ReadWriteDataSource(DataSource primary, HikariDataSource replica) {
+            super(primary);
+            this.replica = replica;
+        }
+
+        @Override
+        public void close() {
+            replica.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.app.demo.config;
+
+import com.app.demo.service.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gives every API request a {@link RequestDeadline}: the client's
+ * {@value #TIMEOUT_HEADER} if it sent one (capped at the configured maximum), otherwise
+ * the default of the first matching path prefix. Outbound calls made while serving the
+ * request only get the time that is left. Requests that ran out are counted in
+ * {@code request.deadline.exceeded}, tagged with the stage that was waiting at the time
+ * ({@code handler} if the response was merely late).
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final Map<String, Long> budgets = new LinkedHashMap<>();
+    private final long defaultMillis;
+    private final long maxMillis;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineFilter(long defaultMillis, long maxMillis, MeterRegistry meterRegistry) {
+        this.defaultMillis = defaultMillis;
+        this.maxMillis = maxMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void addBudget(String pathPrefix, long millis) {
+        budgets.put(pathPrefix, millis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestDeadline deadline = RequestDeadline.start(budgetMillis(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+            String stage = deadline.exceededStage();
+            if (stage == null && deadline.isExpired()) {
+                stage = "handler";
+            }
+            if (stage != null) {
+                Counter.builder("request.deadline.exceeded")
+                        .description("Requests that ran out of time, by the stage that was waiting")
+                        .tag("stage", stage)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+
+    private long budgetMillis(HttpServletRequest request) {
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                long requested = Long.parseLong(header.trim());
+                if (requested > 0) {
+                    return Math.min(requested, maxMillis);
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to the endpoint default
+            }
+        }
+        String uri = request.getRequestURI();
+        for (Map.Entry<String, Long> budget : budgets.entrySet()) {
+            if (uri.startsWith(budget.getKey())) {
+                return budget.getValue();
+            }
+        }
+        return defaultMillis;
+    }
+}
@@ -0,0 +1,54 @@
+package com.app.demo.config;
+
+import com.app.demo.service.StartupWarmup;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the latency of the first real API request an instance serves (warm-up traffic
+ * excluded) as the {@code app.first.request.latency} gauge, to compare deploys with and
+ * without warm-up. After that request it only costs a volatile read.
+ */
+@Slf4j
+public class FirstRequestTimingFilter extends OncePerRequestFilter {
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+    private final AtomicLong latencyMillis = new AtomicLong(-1);
+
+    public FirstRequestTimingFilter(MeterRegistry meterRegistry) {
+        Gauge.builder("app.first.request.latency", latencyMillis, AtomicLong::get)
+                .description("Latency of the first non-warm-up API request after startup (-1 until served)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (recorded.get() || request.getHeader(StartupWarmup.WARMUP_HEADER) != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (recorded.compareAndSet(false, true)) {
+                latencyMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                log.info("First request {} {} took {} ms", request.getMethod(), request.getRequestURI(),
+                        latencyMillis.get());
+            }
+        }
+    }
+}
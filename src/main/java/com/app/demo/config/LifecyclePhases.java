@@ -0,0 +1,20 @@
+package com.app.demo.config;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Shared {@link SmartLifecycle} phases.
+ */
+public final class LifecyclePhases {
+
+    /**
+     * For components the request path depends on (write-behind queues, caches, revocation
+     * lists). Lower phases start earlier and stop later, so these start before the embedded
+     * web server accepts requests and stop only after its graceful shutdown
+     * ({@code DEFAULT_PHASE - 2048}) has drained them.
+     */
+    public static final int AROUND_WEB_SERVER = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private LifecyclePhases() {
+    }
+}
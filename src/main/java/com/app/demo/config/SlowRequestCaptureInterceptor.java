@@ -0,0 +1,48 @@
+package com.app.demo.config;
+
+import com.app.demo.controller.InterviewController;
+import com.app.demo.controller.LightcastController;
+import com.app.demo.service.FlightRecorderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Reports the latency of {@link InterviewController} and {@link LightcastController}
+ * requests to {@link FlightRecorderService}, which dumps its rolling recording when one
+ * is slow.
+ */
+public class SlowRequestCaptureInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = SlowRequestCaptureInterceptor.class.getName() + ".start";
+
+    private final FlightRecorderService flightRecorderService;
+
+    public SlowRequestCaptureInterceptor(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && isMonitored(method.getBeanType())) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start && handler instanceof HandlerMethod method) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            flightRecorderService.onRequestCompleted(
+                    method.getBeanType().getSimpleName() + "." + method.getMethod().getName(), millis);
+        }
+    }
+
+    private static boolean isMonitored(Class<?> controller) {
+        return InterviewController.class.isAssignableFrom(controller)
+                || LightcastController.class.isAssignableFrom(controller);
+    }
+}
@@ -0,0 +1,90 @@
+package com.app.demo.config;
+
+import com.app.demo.service.FlightRecorderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final FlightRecorderService flightRecorderService;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AllocationMetricsInterceptor(meterRegistry))
+                .addPathPatterns("/api/**");
+        registry.addInterceptor(new SlowRequestCaptureInterceptor(flightRecorderService))
+                .addPathPatterns("/api/interview/**", "/api/lightcast/**");
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ObjectMapper objectMapper,
+            CorsConfigurationSource corsConfigurationSource,
+            @Value("${api.concurrency.enabled:true}") boolean enabled,
+            @Value("${api.concurrency.auth.initial-limit:20}") int authInitial,
+            @Value("${api.concurrency.auth.min-limit:4}") int authMin,
+            @Value("${api.concurrency.auth.max-limit:200}") int authMax,
+            @Value("${api.concurrency.interview.initial-limit:20}") int interviewInitial,
+            @Value("${api.concurrency.interview.min-limit:4}") int interviewMin,
+            @Value("${api.concurrency.interview.max-limit:200}") int interviewMax,
+            @Value("${api.concurrency.lightcast.initial-limit:40}") int lightcastInitial,
+            @Value("${api.concurrency.lightcast.min-limit:8}") int lightcastMin,
+            @Value("${api.concurrency.lightcast.max-limit:400}") int lightcastMax) throws IOException {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(objectMapper, corsConfigurationSource);
+        filter.addGroup("auth", "/api/auth/", authInitial, authMin, authMax, meterRegistry);
+        filter.addGroup("interview", "/api/interview/", interviewInitial, interviewMin, interviewMax, meterRegistry);
+        filter.addGroup("lightcast", "/api/lightcast/", lightcastInitial, lightcastMin, lightcastMax, meterRegistry);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setEnabled(enabled);
+        // Ahead of Spring Security (-100) so shed requests skip authentication entirely; the
+        // filter adds the CORS headers to its own 503s
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(
+            @Value("${request.deadline.enabled:true}") boolean enabled,
+            @Value("${request.deadline.default-ms:15000}") long defaultMillis,
+            @Value("${request.deadline.max-ms:120000}") long maxMillis,
+            @Value("${request.deadline.auth-ms:10000}") long authMillis,
+            @Value("${request.deadline.interview-ms:45000}") long interviewMillis,
+            @Value("${request.deadline.lightcast-ms:10000}") long lightcastMillis) {
+        DeadlineFilter filter = new DeadlineFilter(defaultMillis, maxMillis, meterRegistry);
+        filter.addBudget("/api/auth/", authMillis);
+        filter.addBudget("/api/interview/", interviewMillis);
+        filter.addBudget("/api/lightcast/", lightcastMillis);
+
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setEnabled(enabled);
+        // The clock starts before the request can wait on the concurrency limiter or security
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<FirstRequestTimingFilter> firstRequestTimingFilter() {
+        FilterRegistrationBean<FirstRequestTimingFilter> registration =
+                new FilterRegistrationBean<>(new FirstRequestTimingFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
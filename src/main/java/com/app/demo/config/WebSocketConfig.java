@@ -0,0 +1,79 @@
+package com.app.demo.config;
+
+import com.app.demo.controller.TranscriptionWebSocketHandler;
+import com.app.demo.security.JwtHandshakeInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final TranscriptionWebSocketHandler transcriptionHandler;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
+    @Value("${cors.allowed-origins:http://localhost:3000}")
+    private String allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(new ConcurrentSendDecorator(transcriptionHandler), "/ws/interview/transcribe")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOrigins(allowedOrigins.split(","));
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(512 * 1024);
+        container.setMaxTextMessageBufferSize(16 * 1024);
+        return container;
+    }
+
+    /**
+     * Segment transcripts complete on worker threads, so every session the handler sees is
+     * wrapped to serialise concurrent sends.
+     */
+    private static final class ConcurrentSendDecorator extends WebSocketHandlerDecorator {
+
+        private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+        ConcurrentSendDecorator(WebSocketHandler delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+            WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session, 10_000, 512 * 1024);
+            sessions.put(session.getId(), decorated);
+            super.afterConnectionEstablished(decorated);
+        }
+
+        @Override
+        public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+            super.handleMessage(sessions.getOrDefault(session.getId(), session), message);
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+            WebSocketSession decorated = sessions.remove(session.getId());
+            super.afterConnectionClosed(decorated != null ? decorated : session, closeStatus);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.app.demo.controller;
+
+import com.app.demo.model.dto.AnalyticsSummary;
+import com.app.demo.model.dto.SkillStats;
+import com.app.demo.model.dto.SkillTrend;
+import com.app.demo.service.InterviewAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final InterviewAnalyticsService analyticsService;
+
+    @GetMapping("/me")
+    public ResponseEntity<AnalyticsSummary> summary(@RequestParam(defaultValue = "30") int days,
+                                                    Authentication authentication) {
+        return ResponseEntity.ok(analyticsService.summary(authentication.getName(), days));
+    }
+
+    @GetMapping("/me/skills/{skill}")
+    public ResponseEntity<SkillTrend> skillTrend(@PathVariable String skill,
+                                                 @RequestParam(defaultValue = "30") int days,
+                                                 Authentication authentication) {
+        return ResponseEntity.ok(analyticsService.skillTrend(authentication.getName(), skill, days));
+    }
+
+    @GetMapping("/skills")
+    public ResponseEntity<List<SkillStats>> skillsOverview(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(analyticsService.skillsOverview(days));
+    }
+}
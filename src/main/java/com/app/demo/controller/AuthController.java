@@ -3,9 +3,11 @@ package com.app.demo.controller;
 import com.app.demo.model.dto.AuthResponse;
 import com.app.demo.model.dto.LoginRequest;
 import com.app.demo.model.dto.RegisterRequest;
+import com.app.demo.model.dto.RevokeTokenRequest;
 import com.app.demo.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,4 +27,16 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logout(authorization.startsWith("Bearer ") ? authorization.substring(7) : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revoke(@RequestBody RevokeTokenRequest request) {
+        authService.revoke(request.token(), request.jti());
+        return ResponseEntity.noContent().build();
+    }
 }
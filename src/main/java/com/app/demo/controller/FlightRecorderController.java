@@ -0,0 +1,78 @@
+package com.app.demo.controller;
+
+import com.app.demo.service.FlightRecorderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Admin-only Java Flight Recorder control; open the downloaded files in JDK Mission Control.
+ */
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+public class FlightRecorderController {
+
+    private final FlightRecorderService flightRecorderService;
+
+    @PostMapping("/recordings")
+    public ResponseEntity<FlightRecorderService.RecordingInfo> start(
+            @RequestParam(defaultValue = "profile") String profile,
+            @RequestParam(defaultValue = "0") long durationSeconds) {
+        return ResponseEntity.ok(flightRecorderService.start(profile, durationSeconds));
+    }
+
+    @GetMapping("/recordings")
+    public ResponseEntity<List<FlightRecorderService.RecordingInfo>> list() {
+        return ResponseEntity.ok(flightRecorderService.list());
+    }
+
+    @PostMapping("/recordings/{id}/stop")
+    public ResponseEntity<StreamingResponseBody> stop(@PathVariable long id) throws IOException {
+        return download(flightRecorderService.stop(id), true);
+    }
+
+    @DeleteMapping("/recordings/{id}")
+    public ResponseEntity<Void> delete(@PathVariable long id) {
+        flightRecorderService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/dumps")
+    public ResponseEntity<List<FlightRecorderService.DumpInfo>> dumps() throws IOException {
+        return ResponseEntity.ok(flightRecorderService.dumps());
+    }
+
+    @GetMapping("/dumps/{name}")
+    public ResponseEntity<StreamingResponseBody> dump(@PathVariable String name) throws IOException {
+        return download(flightRecorderService.dump(name), false);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(Path file, boolean deleteAfter) throws IOException {
+        long size = Files.size(file);
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                if (deleteAfter) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+}
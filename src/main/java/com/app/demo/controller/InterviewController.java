@@ -1,15 +1,21 @@
 package com.app.demo.controller;
 
+import com.app.demo.model.dto.AdaptiveQuestionRequest;
+import com.app.demo.model.dto.AdaptiveQuestionResponse;
+import com.app.demo.model.dto.AnswerRequest;
+import com.app.demo.model.dto.ErrorResponse;
+import com.app.demo.model.dto.InterviewTokenRequest;
+import com.app.demo.model.dto.QuestionsRequest;
+import com.app.demo.service.IdempotencyService;
+import com.app.demo.service.InterviewAnalyticsService;
 import com.app.demo.service.InterviewService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.Base64;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/interview")
@@ -17,68 +23,99 @@ import java.util.Map;
 @Slf4j
 public class InterviewController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final InterviewService interviewService;
+    private final IdempotencyService idempotencyService;
+    private final InterviewAnalyticsService analyticsService;
 
     @PostMapping("/token")
-    public ResponseEntity<Map<String, Object>> getToken(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> getToken(@RequestBody InterviewTokenRequest request) {
         try {
-            String studentProfileId = request.getOrDefault("studentProfileId", "guest-" + System.currentTimeMillis());
-            String interviewDisplayId = request.getOrDefault("interviewDisplayId", "interview-" + System.currentTimeMillis());
-            String language = request.getOrDefault("language", "english");
-
-            Map<String, Object> tokenResponse = interviewService.getToken(studentProfileId, interviewDisplayId, language);
+            String studentProfileId = request.studentProfileId() != null
+                    ? request.studentProfileId() : "guest-" + System.currentTimeMillis();
+            String interviewDisplayId = request.interviewDisplayId() != null
+                    ? request.interviewDisplayId() : "interview-" + System.currentTimeMillis();
+            String language = request.language() != null ? request.language() : "english";
 
-            Map<String, Object> response = new HashMap<>(tokenResponse);
-            response.put("wsUrl", interviewService.getWsUrl());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(interviewService.getToken(studentProfileId, interviewDisplayId, language));
         } catch (Exception e) {
             log.error("Failed to get interview token: {}", e.getMessage());
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to get interview token: " + e.getMessage()));
+                    .body(new ErrorResponse("Failed to get interview token: " + e.getMessage()));
         }
     }
 
-    @SuppressWarnings("unchecked")
     @PostMapping("/adaptive-question")
-    public ResponseEntity<Map<String, Object>> getAdaptiveQuestion(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> getAdaptiveQuestion(
+            @RequestBody AdaptiveQuestionRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
         try {
-            String skill = (String) request.getOrDefault("skill", "");
-            int questionNumber = ((Number) request.getOrDefault("questionNumber", 1)).intValue();
-            List<Map<String, Object>> previousResults =
-                    (List<Map<String, Object>>) request.getOrDefault("previousResults", List.of());
-            return ResponseEntity.ok(interviewService.getAdaptiveQuestion(skill, questionNumber, previousResults));
+            return idempotent(idempotencyService.execute(authentication.getName(), "adaptive-question",
+                    idempotencyKey, idempotencyService.fingerprint(request),
+                    () -> {
+                        AdaptiveQuestionResponse question = interviewService.getAdaptiveQuestion(
+                                request.skill(), request.questionNumber(), request.previousResults());
+                        recordProficiency(authentication.getName(), request.skill(), question);
+                        return question;
+                    }));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(new ErrorResponse(e.getReason()));
         } catch (Exception e) {
             log.error("Failed to get adaptive question: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to get adaptive question: " + e.getMessage()));
+                    .body(new ErrorResponse("Failed to get adaptive question: " + e.getMessage()));
         }
     }
 
     @PostMapping("/answer")
-    public ResponseEntity<Map<String, Object>> evaluateAnswer(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> evaluateAnswer(
+            @Valid @RequestBody AnswerRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
         try {
-            String question = request.get("question");
-            String audioBase64 = request.get("audioData");
-            byte[] audioBytes = Base64.getDecoder().decode(audioBase64);
-            Map<String, Object> result = interviewService.evaluateAnswer(question, audioBytes);
-            return ResponseEntity.ok(result);
+            return idempotent(idempotencyService.execute(authentication.getName(), "answer",
+                    idempotencyKey, idempotencyService.fingerprint(request.question(), request.audioData()),
+                    () -> interviewService.evaluateAnswer(request.question(), request.audioData()),
+                    result -> !result.degraded()));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(new ErrorResponse(e.getReason()));
         } catch (Exception e) {
             log.error("Failed to evaluate answer: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to evaluate answer: " + e.getMessage()));
+                    .body(new ErrorResponse("Failed to evaluate answer: " + e.getMessage()));
         }
     }
 
     @PostMapping("/questions")
-    public ResponseEntity<Map<String, Object>> getQuestions(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> getQuestions(@Valid @RequestBody QuestionsRequest request) {
         try {
-            String skill = request.get("skill");
-            return ResponseEntity.ok(interviewService.getQuestions(skill));
+            return ResponseEntity.ok(interviewService.getQuestions(request.skill()));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(new ErrorResponse(e.getReason()));
         } catch (Exception e) {
             log.error("Failed to get interview questions: {}", e.getMessage());
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to generate questions: " + e.getMessage()));
+                    .body(new ErrorResponse("Failed to generate questions: " + e.getMessage()));
+        }
+    }
+
+    private void recordProficiency(String userEmail, String skill, AdaptiveQuestionResponse question) {
+        try {
+            analyticsService.recordProficiency(userEmail, skill, question.proficiency());
+        } catch (RuntimeException e) {
+            // Analytics must not cost the candidate their question
+            log.warn("Could not record proficiency for '{}': {}", skill, e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<?> idempotent(IdempotencyService.Result<?> result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
         }
+        return response.body(result.value());
     }
 }
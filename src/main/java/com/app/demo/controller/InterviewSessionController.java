@@ -0,0 +1,65 @@
+package com.app.demo.controller;
+
+import com.app.demo.model.dto.CreateSessionRequest;
+import com.app.demo.model.dto.ErrorResponse;
+import com.app.demo.model.dto.SessionAnswerRequest;
+import com.app.demo.service.InterviewSessionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/interview/sessions")
+@RequiredArgsConstructor
+@Slf4j
+public class InterviewSessionController {
+
+    private final InterviewSessionService sessionService;
+
+    @PostMapping
+    public ResponseEntity<?> create(@Valid @RequestBody CreateSessionRequest request, Authentication authentication) {
+        return handle("create interview session",
+                () -> sessionService.create(authentication.getName(), request.skill()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> get(@PathVariable UUID id, Authentication authentication) {
+        return handle("load interview session", () -> sessionService.get(authentication.getName(), id));
+    }
+
+    @PostMapping("/{id}/next-question")
+    public ResponseEntity<?> nextQuestion(@PathVariable UUID id, Authentication authentication) {
+        return handle("get next question", () -> sessionService.nextQuestion(authentication.getName(), id));
+    }
+
+    @PostMapping("/{id}/answer")
+    public ResponseEntity<?> answer(@PathVariable UUID id, @Valid @RequestBody SessionAnswerRequest request,
+                                    Authentication authentication) {
+        return handle("evaluate answer",
+                () -> sessionService.submitAnswer(authentication.getName(), id, request.audioData()));
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<?> complete(@PathVariable UUID id, Authentication authentication) {
+        return handle("complete interview session", () -> sessionService.complete(authentication.getName(), id));
+    }
+
+    private ResponseEntity<?> handle(String action, Supplier<?> call) {
+        try {
+            return ResponseEntity.ok(call.get());
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(new ErrorResponse(e.getReason()));
+        } catch (Exception e) {
+            log.error("Failed to {}: {}", action, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(new ErrorResponse("Failed to " + action + ": " + e.getMessage()));
+        }
+    }
+}
@@ -1,40 +1,153 @@
 package com.app.demo.controller;
 
+import com.app.demo.model.dto.BulkLookupRequest;
+import com.app.demo.model.dto.BulkLookupResponse;
+import com.app.demo.model.dto.JsonPayload;
 import com.app.demo.service.LightcastApiService;
-import lombok.RequiredArgsConstructor;
+import com.app.demo.service.LightcastPassThrough;
+import com.app.demo.service.LightcastPrefetcher;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Map;
+import java.io.IOException;
+import java.time.Duration;
 
+/**
+ * Lightcast data changes rarely, so responses carry a strong content ETag and a
+ * per-endpoint Cache-Control. Spring answers a matching If-None-Match with 304 and no
+ * body. Bodies are served pre-compressed (Tomcat skips compression for strong ETags).
+ * Large searches, and searches projecting {@code fields}, are streamed through from
+ * upstream by {@link LightcastPassThrough} instead, without ETag or caching. Buffered
+ * searches hand their results to {@link LightcastPrefetcher}, which warms the details of
+ * the top hits.
+ */
 @RestController
 @RequestMapping("/api/lightcast")
-@RequiredArgsConstructor
 public class LightcastController {
 
     private final LightcastApiService lightcastApiService;
+    private final LightcastPassThrough passThrough;
+    private final LightcastPrefetcher prefetcher;
+    private final CacheControl detailCacheControl;
+    private final CacheControl searchCacheControl;
+
+    public LightcastController(LightcastApiService lightcastApiService,
+                               LightcastPassThrough passThrough,
+                               LightcastPrefetcher prefetcher,
+                               @Value("${lightcast.http.detail-max-age-seconds:3600}") long detailMaxAge,
+                               @Value("${lightcast.http.detail-stale-while-revalidate-seconds:86400}") long detailStale,
+                               @Value("${lightcast.http.search-max-age-seconds:300}") long searchMaxAge,
+                               @Value("${lightcast.http.search-stale-while-revalidate-seconds:3600}") long searchStale) {
+        this.lightcastApiService = lightcastApiService;
+        this.passThrough = passThrough;
+        this.prefetcher = prefetcher;
+        // private: the endpoints sit behind authentication, so shared caches must not serve them
+        this.detailCacheControl = CacheControl.maxAge(Duration.ofSeconds(detailMaxAge))
+                .staleWhileRevalidate(Duration.ofSeconds(detailStale))
+                .cachePrivate();
+        this.searchCacheControl = CacheControl.maxAge(Duration.ofSeconds(searchMaxAge))
+                .staleWhileRevalidate(Duration.ofSeconds(searchStale))
+                .cachePrivate();
+    }
 
     @GetMapping("/skills")
-    public ResponseEntity<Map<String, Object>> searchSkills(
+    public ResponseEntity<?> searchSkills(
             @RequestParam String q,
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(lightcastApiService.searchSkills(q, limit));
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication) throws IOException {
+        if (passThrough.shouldStream(limit, fields)) {
+            return streamed(passThrough.searchSkills(q, limit, fields, acceptsGzip(acceptEncoding)));
+        }
+        JsonPayload results = passThrough.measureBuffered(() -> lightcastApiService.searchSkills(q, limit));
+        prefetcher.afterSearch(authentication.getName(), LightcastPrefetcher.Kind.SKILL, results);
+        return cached(results, searchCacheControl, acceptEncoding);
     }
 
     @GetMapping("/skills/{id}")
-    public ResponseEntity<Map<String, Object>> getSkillById(@PathVariable String id) {
-        return ResponseEntity.ok(lightcastApiService.getSkillById(id));
+    public ResponseEntity<byte[]> getSkillById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        prefetcher.recordDetailRequest(LightcastPrefetcher.Kind.SKILL, id);
+        return cached(lightcastApiService.getSkillById(id), detailCacheControl, acceptEncoding);
     }
 
     @GetMapping("/occupations")
-    public ResponseEntity<Map<String, Object>> searchOccupations(
+    public ResponseEntity<?> searchOccupations(
             @RequestParam String q,
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(lightcastApiService.searchOccupations(q, limit));
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication) throws IOException {
+        if (passThrough.shouldStream(limit, fields)) {
+            return streamed(passThrough.searchOccupations(q, limit, fields, acceptsGzip(acceptEncoding)));
+        }
+        JsonPayload results = passThrough.measureBuffered(() -> lightcastApiService.searchOccupations(q, limit));
+        prefetcher.afterSearch(authentication.getName(), LightcastPrefetcher.Kind.OCCUPATION, results);
+        return cached(results, searchCacheControl, acceptEncoding);
     }
 
     @GetMapping("/occupations/{id}")
-    public ResponseEntity<Map<String, Object>> getOccupationById(@PathVariable String id) {
-        return ResponseEntity.ok(lightcastApiService.getOccupationById(id));
+    public ResponseEntity<byte[]> getOccupationById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        prefetcher.recordDetailRequest(LightcastPrefetcher.Kind.OCCUPATION, id);
+        return cached(lightcastApiService.getOccupationById(id), detailCacheControl, acceptEncoding);
+    }
+
+    @PostMapping("/skills/bulk")
+    public ResponseEntity<BulkLookupResponse> getSkillsByIds(@Valid @RequestBody BulkLookupRequest request) {
+        return ResponseEntity.ok(lightcastApiService.getSkillsByIds(request.ids()));
+    }
+
+    @PostMapping("/occupations/bulk")
+    public ResponseEntity<BulkLookupResponse> getOccupationsByIds(@Valid @RequestBody BulkLookupRequest request) {
+        return ResponseEntity.ok(lightcastApiService.getOccupationsByIds(request.ids()));
+    }
+
+    private ResponseEntity<byte[]> cached(JsonPayload payload, CacheControl cacheControl, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (payload.hasGzip() && acceptsGzip(acceptEncoding)) {
+            return response.eTag(payload.gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(payload.gzipBody());
+        }
+        return response.eTag(payload.etag()).body(payload.body());
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamed(LightcastPassThrough.Stream stream) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(searchCacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (stream.contentEncoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, stream.contentEncoding());
+        }
+        return response.body(stream::writeTo);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                return tokens.length < 2 || !tokens[1].replace(" ", "").matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,40 @@
+package com.app.demo.controller;
+
+import com.app.demo.service.LiveKitWebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/livekit")
+@RequiredArgsConstructor
+public class LiveKitWebhookController {
+
+    private final LiveKitWebhookService webhookService;
+
+    /**
+     * Authenticated by the signed token LiveKit sends in the Authorization header, not by
+     * a user session. Acknowledged as soon as the event is queued.
+     */
+    @PostMapping(value = "/webhook", consumes = "*/*")
+    public ResponseEntity<Void> webhook(@RequestBody byte[] body,
+                                        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+                                        String authorization) {
+        return switch (webhookService.receive(body, authorization)) {
+            case ACCEPTED, DUPLICATE, IGNORED -> ResponseEntity.ok().build();
+            case INVALID -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            // LiveKit retries failed deliveries
+            case OVERLOADED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1").build();
+        };
+    }
+
+    @GetMapping("/rooms")
+    public ResponseEntity<Map<String, Integer>> occupancy() {
+        return ResponseEntity.ok(webhookService.occupancy());
+    }
+}
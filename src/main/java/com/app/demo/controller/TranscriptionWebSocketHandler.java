@@ -0,0 +1,158 @@
+package com.app.demo.controller;
+
+import com.app.demo.model.dto.AnswerResult;
+import com.app.demo.model.dto.TranscriptionControlMessage;
+import com.app.demo.model.dto.TranscriptionEvent;
+import com.app.demo.security.JwtHandshakeInterceptor;
+import com.app.demo.service.InterviewSessionService;
+import com.app.demo.service.StreamingTranscription;
+import com.app.demo.service.StreamingTranscriptionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@code /ws/interview/transcribe}: the client sends a {@code start} message, streams
+ * audio as binary frames while the candidate speaks, then sends {@code stop}. Segments
+ * are transcribed as pauses are detected, so after {@code stop} only the last short
+ * segment and the scoring call remain. Events are pushed back as they complete.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TranscriptionWebSocketHandler extends AbstractWebSocketHandler {
+
+    private static final String STATE = "transcriptionState";
+
+    private final StreamingTranscriptionService transcriptionService;
+    private final InterviewSessionService sessionService;
+    private final ObjectMapper objectMapper;
+
+    private record AnswerState(StreamingTranscription transcription, String question, UUID sessionId) {
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        TranscriptionControlMessage control = objectMapper.readValue(message.getPayload(), TranscriptionControlMessage.class);
+        if ("start".equals(control.type())) {
+            start(session, control);
+        } else if ("stop".equals(control.type())) {
+            stop(session);
+        } else {
+            send(session, TranscriptionEvent.error("Unknown message type: " + control.type()));
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        if (!(session.getAttributes().get(STATE) instanceof AnswerState state)) {
+            send(session, TranscriptionEvent.error("Send a start message before audio"));
+            return;
+        }
+        ByteBuffer payload = message.getPayload();
+        byte[] chunk = new byte[payload.remaining()];
+        payload.get(chunk);
+        try {
+            state.transcription().accept(chunk);
+        } catch (StreamingTranscription.LimitExceededException e) {
+            log.info("Stopping streamed answer over its limit: {}", e.getMessage());
+            session.getAttributes().remove(STATE);
+            state.transcription().cancel();
+            send(session, TranscriptionEvent.error(e.getMessage()));
+        } catch (IOException e) {
+            log.warn("Rejecting unreadable audio stream: {}", e.getMessage());
+            session.getAttributes().remove(STATE);
+            state.transcription().cancel();
+            send(session, TranscriptionEvent.error("Unreadable audio stream: " + e.getMessage()));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (session.getAttributes().remove(STATE) instanceof AnswerState state) {
+            state.transcription().cancel();
+        }
+    }
+
+    private void start(WebSocketSession session, TranscriptionControlMessage control) throws IOException {
+        String email = (String) session.getAttributes().get(JwtHandshakeInterceptor.EMAIL_ATTRIBUTE);
+        String question = control.question();
+        if (control.sessionId() != null) {
+            try {
+                question = sessionService.openQuestion(email, control.sessionId());
+            } catch (ResponseStatusException e) {
+                send(session, TranscriptionEvent.error(e.getReason()));
+                return;
+            }
+        }
+        if (question == null || question.isBlank()) {
+            send(session, TranscriptionEvent.error("A question or sessionId is required"));
+            return;
+        }
+
+        StreamingTranscription.Format format = "pcm16".equalsIgnoreCase(control.format())
+                ? StreamingTranscription.Format.PCM16 : StreamingTranscription.Format.WEBM;
+        int sampleRate = control.sampleRate() != null ? control.sampleRate() : 48_000;
+        StreamingTranscription transcription = transcriptionService.start(format, sampleRate,
+                (index, text) -> trySend(session, TranscriptionEvent.segment(index, text)));
+
+        Object previous = session.getAttributes().put(STATE, new AnswerState(transcription, question, control.sessionId()));
+        if (previous instanceof AnswerState old) {
+            old.transcription().cancel();
+        }
+        send(session, TranscriptionEvent.started());
+    }
+
+    private void stop(WebSocketSession session) throws IOException {
+        if (!(session.getAttributes().remove(STATE) instanceof AnswerState state)) {
+            send(session, TranscriptionEvent.error("No answer in progress"));
+            return;
+        }
+        String email = (String) session.getAttributes().get(JwtHandshakeInterceptor.EMAIL_ATTRIBUTE);
+        CompletableFuture<AnswerResult> result =
+                transcriptionService.score(state.question(), state.transcription().finish());
+        result.whenComplete((answer, error) -> {
+            if (error != null) {
+                log.error("Streaming answer evaluation failed: {}", error.getMessage(), error);
+                trySend(session, TranscriptionEvent.error("Failed to evaluate answer"));
+                return;
+            }
+            if (state.sessionId() != null) {
+                try {
+                    sessionService.recordStreamedAnswer(email, state.sessionId(), state.question(), answer);
+                } catch (ResponseStatusException e) {
+                    trySend(session, TranscriptionEvent.error(e.getReason()));
+                    return;
+                }
+            }
+            trySend(session, TranscriptionEvent.result(answer));
+        });
+    }
+
+    private void send(WebSocketSession session, TranscriptionEvent event) throws IOException {
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(event)));
+    }
+
+    private void trySend(WebSocketSession session, TranscriptionEvent event) {
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            send(session, event);
+        } catch (IOException e) {
+            log.debug("Could not send transcription event: {}", e.getMessage());
+        }
+    }
+}
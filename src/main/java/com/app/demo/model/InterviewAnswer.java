@@ -0,0 +1,41 @@
+package com.app.demo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "interview_answers", indexes = @Index(name = "idx_interview_answers_session", columnList = "sessionId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterviewAnswer {
+
+    // Generated client-side so write-behind flushes can be JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID sessionId;
+
+    private int questionNumber;
+
+    @Column(columnDefinition = "TEXT")
+    private String question;
+
+    private String difficulty;
+
+    @Column(columnDefinition = "TEXT")
+    private String transcript;
+
+    private int score;
+
+    @Column(columnDefinition = "TEXT")
+    private String feedback;
+
+    private Instant answeredAt;
+}
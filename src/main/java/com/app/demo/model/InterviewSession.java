@@ -0,0 +1,47 @@
+package com.app.demo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "interview_sessions", indexes = @Index(name = "idx_interview_sessions_user", columnList = "userEmail"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterviewSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String userEmail;
+
+    @Column(nullable = false)
+    private String skill;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private int questionNumber;
+
+    @Column(columnDefinition = "TEXT")
+    private String currentQuestion;
+
+    private String currentDifficulty;
+
+    private String proficiency;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public enum Status {
+        ACTIVE, COMPLETED
+    }
+}
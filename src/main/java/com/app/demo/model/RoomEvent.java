@@ -0,0 +1,53 @@
+package com.app.demo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "livekit_room_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_livekit_room_events_event_id", columnNames = "event_id"),
+        indexes = {
+        @Index(name = "idx_livekit_room_events_room", columnList = "roomName"),
+        @Index(name = "idx_livekit_room_events_created_at", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomEvent {
+
+    // Webhook strings are truncated to this before they are queued, so no row can fail on length
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    // Generated client-side so batched inserts stay JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // LiveKit's event id (EV_...); unique, so a redelivery is skipped on insert. Null if
+    // the webhook had none, which never conflicts
+    @Column(length = MAX_TEXT_LENGTH)
+    private String eventId;
+
+    @Column(nullable = false, length = MAX_TEXT_LENGTH)
+    private String event;
+
+    @Column(length = MAX_TEXT_LENGTH)
+    private String roomSid;
+
+    @Column(length = MAX_TEXT_LENGTH)
+    private String roomName;
+
+    @Column(length = MAX_TEXT_LENGTH)
+    private String participantSid;
+
+    @Column(length = MAX_TEXT_LENGTH)
+    private String participantIdentity;
+
+    private Instant createdAt;
+
+    private Instant receivedAt;
+}
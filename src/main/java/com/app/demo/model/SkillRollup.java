@@ -0,0 +1,68 @@
+package com.app.demo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Running totals of interview answers per user, skill and UTC day. Rows are only ever
+ * incremented (see {@code SkillRollupRepository.addToRollup}), in the same transaction
+ * that persists the answers, so analytics never has to scan interview_answers.
+ */
+@Entity
+@Table(name = "interview_skill_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_interview_skill_rollups_user_skill_day",
+                columnNames = {"user_email", "skill", "day"}),
+        indexes = @Index(name = "idx_interview_skill_rollups_day", columnList = "day"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SkillRollup {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String userEmail;
+
+    // Lower-cased so "Java" and "java" sessions roll up together
+    @Column(nullable = false)
+    private String skill;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    private long answers;
+
+    private long scoreSum;
+
+    // Score histogram (scores are 0–10)
+    @Column(name = "scores_0_2")
+    private long scores0To2;
+
+    @Column(name = "scores_3_4")
+    private long scores3To4;
+
+    @Column(name = "scores_5_6")
+    private long scores5To6;
+
+    @Column(name = "scores_7_8")
+    private long scores7To8;
+
+    @Column(name = "scores_9_10")
+    private long scores9To10;
+
+    private long beginnerAnswers;
+
+    private long intermediateAnswers;
+
+    private long advancedAnswers;
+
+    private String lastProficiency;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,12 @@
+package com.app.demo.model.dto;
+
+import java.util.List;
+
+public record AdaptiveQuestionRequest(String skill, Integer questionNumber, List<PreviousResult> previousResults) {
+
+    public AdaptiveQuestionRequest {
+        if (skill == null) skill = "";
+        if (questionNumber == null) questionNumber = 1;
+        if (previousResults == null) previousResults = List.of();
+    }
+}
@@ -0,0 +1,4 @@
+package com.app.demo.model.dto;
+
+public record AdaptiveQuestionResponse(String question, String difficulty, String proficiency, double avgScore) {
+}
@@ -0,0 +1,7 @@
+package com.app.demo.model.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record AnalyticsSummary(LocalDate from, LocalDate to, SkillStats overall, List<SkillStats> skills) {
+}
@@ -0,0 +1,11 @@
+package com.app.demo.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * {@code audioData} is sent as base64 and decoded by Jackson straight into bytes,
+ * so the encoded form never lives on the heap as a separate String.
+ */
+public record AnswerRequest(@NotBlank String question, @NotNull byte[] audioData) {
+}
@@ -0,0 +1,14 @@
+package com.app.demo.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * {@code degraded} marks the fallback returned when transcription or scoring failed. It is
+ * not sent to clients; it keeps the result from being stored as a success.
+ */
+public record AnswerResult(String transcript, int score, String feedback, @JsonIgnore boolean degraded) {
+
+    public AnswerResult(String transcript, int score, String feedback) {
+        this(transcript, score, feedback, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.app.demo.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BulkLookupRequest(@NotEmpty List<String> ids) {
+}
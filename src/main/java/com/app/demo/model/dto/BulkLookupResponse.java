@@ -0,0 +1,12 @@
+package com.app.demo.model.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+
+/**
+ * Details keyed by id in request order; ids that could not be resolved are reported
+ * in {@code errors} instead of failing the whole lookup.
+ */
+public record BulkLookupResponse(Map<String, JsonNode> data, Map<String, String> errors) {
+}
@@ -0,0 +1,6 @@
+package com.app.demo.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record CreateSessionRequest(@NotBlank String skill) {
+}
@@ -0,0 +1,13 @@
+package com.app.demo.model.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record InterviewSessionView(UUID sessionId, String skill, String status, int questionNumber,
+                                   String currentQuestion, String currentDifficulty, String proficiency,
+                                   List<SessionAnswerView> answers) {
+
+    public record SessionAnswerView(int questionNumber, String question, String difficulty,
+                                    String transcript, int score, String feedback) {
+    }
+}
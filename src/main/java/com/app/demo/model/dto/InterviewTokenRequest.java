@@ -0,0 +1,4 @@
+package com.app.demo.model.dto;
+
+public record InterviewTokenRequest(String studentProfileId, String interviewDisplayId, String language) {
+}
@@ -0,0 +1,48 @@
+package com.app.demo.model.dto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON body with a strong ETag derived from its content, plus a gzip
+ * variant (with its own ETag) when the body is large enough to be worth compressing.
+ */
+public record JsonPayload(byte[] body, String etag, byte[] gzipBody, String gzipEtag) {
+
+    public static JsonPayload of(byte[] body, int gzipMinBytes) {
+        String hash = hash(body);
+        if (body.length < gzipMinBytes) {
+            return new JsonPayload(body, "\"" + hash + "\"", null, null);
+        }
+        return new JsonPayload(body, "\"" + hash + "\"", gzip(body), "\"" + hash + "-gz\"");
+    }
+
+    public boolean hasGzip() {
+        return gzipBody != null;
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,6 @@
+package com.app.demo.model.dto;
+
+import java.util.List;
+
+public record QuestionsResponse(List<String> questions) {
+}
@@ -0,0 +1,6 @@
+package com.app.demo.model.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record SessionAnswerRequest(@NotNull byte[] audioData) {
+}
@@ -0,0 +1,7 @@
+package com.app.demo.model.dto;
+
+import java.util.UUID;
+
+public record SessionQuestionResponse(UUID sessionId, int questionNumber, String question,
+                                      String difficulty, String proficiency, double avgScore) {
+}
@@ -0,0 +1,7 @@
+package com.app.demo.model.dto;
+
+import java.util.Map;
+
+public record SkillStats(String skill, long answers, Double averageScore, Map<String, Long> scoreHistogram,
+                         Map<String, Long> difficulties, String latestProficiency) {
+}
@@ -0,0 +1,10 @@
+package com.app.demo.model.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record SkillTrend(String skill, LocalDate from, LocalDate to, List<DailyStats> days) {
+
+    public record DailyStats(LocalDate day, SkillStats stats) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.app.demo.model.dto;
+
+import java.util.UUID;
+
+/**
+ * Text frames sent by the client on the streaming transcription socket:
+ * {@code start} (with either {@code sessionId} or {@code question}) and {@code stop}.
+ */
+public record TranscriptionControlMessage(String type, String question, UUID sessionId,
+                                          String format, Integer sampleRate) {
+}
@@ -0,0 +1,23 @@
+package com.app.demo.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TranscriptionEvent(String type, Integer index, String text, AnswerResult result, String error) {
+
+    public static TranscriptionEvent started() {
+        return new TranscriptionEvent("started", null, null, null, null);
+    }
+
+    public static TranscriptionEvent segment(int index, String text) {
+        return new TranscriptionEvent("segment", index, text, null, null);
+    }
+
+    public static TranscriptionEvent result(AnswerResult result) {
+        return new TranscriptionEvent("result", null, null, result, null);
+    }
+
+    public static TranscriptionEvent error(String error) {
+        return new TranscriptionEvent("error", null, null, null, error);
+    }
+}
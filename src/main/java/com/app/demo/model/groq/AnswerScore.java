@@ -0,0 +1,4 @@
+package com.app.demo.model.groq;
+
+public record AnswerScore(Integer score, String feedback) {
+}
@@ -0,0 +1,15 @@
+package com.app.demo.model.groq;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatCompletionRequest(
+        String model,
+        List<ChatMessage> messages,
+        double temperature,
+        @JsonProperty("max_tokens") int maxTokens,
+        @JsonProperty("response_format") ResponseFormat responseFormat) {
+}
@@ -0,0 +1,19 @@
+package com.app.demo.model.groq;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record ChatCompletionResponse(List<Choice> choices) {
+
+    public record Choice(ChatMessage message, @JsonProperty("finish_reason") String finishReason) {
+    }
+
+    public String firstContent() {
+        if (choices == null || choices.isEmpty() || choices.get(0).message() == null) {
+            return "";
+        }
+        String content = choices.get(0).message().content();
+        return content != null ? content : "";
+    }
+}
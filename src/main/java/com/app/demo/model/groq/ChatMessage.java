@@ -0,0 +1,8 @@
+package com.app.demo.model.groq;
+
+public record ChatMessage(String role, String content) {
+
+    public static ChatMessage user(String content) {
+        return new ChatMessage("user", content);
+    }
+}
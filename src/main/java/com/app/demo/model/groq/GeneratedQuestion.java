@@ -0,0 +1,4 @@
+package com.app.demo.model.groq;
+
+public record GeneratedQuestion(String question, String difficulty) {
+}
@@ -0,0 +1,6 @@
+package com.app.demo.model.groq;
+
+import java.util.List;
+
+public record GeneratedQuestions(List<String> questions) {
+}
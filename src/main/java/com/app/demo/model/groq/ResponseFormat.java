@@ -0,0 +1,6 @@
+package com.app.demo.model.groq;
+
+public record ResponseFormat(String type) {
+
+    public static final ResponseFormat JSON_OBJECT = new ResponseFormat("json_object");
+}
@@ -0,0 +1,12 @@
+package com.app.demo.repository;
+
+import com.app.demo.model.InterviewAnswer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface InterviewAnswerRepository extends JpaRepository<InterviewAnswer, UUID> {
+
+    List<InterviewAnswer> findBySessionIdOrderByQuestionNumber(UUID sessionId);
+}
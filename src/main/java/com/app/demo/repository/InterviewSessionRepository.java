@@ -0,0 +1,28 @@
+package com.app.demo.repository;
+
+import com.app.demo.model.InterviewSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface InterviewSessionRepository extends JpaRepository<InterviewSession, UUID> {
+
+    Optional<InterviewSession> findByIdAndUserEmail(UUID id, String userEmail);
+
+    @Modifying
+    @Query("update InterviewSession s set s.status = :status, s.questionNumber = :questionNumber, " +
+            "s.currentQuestion = :currentQuestion, s.currentDifficulty = :currentDifficulty, " +
+            "s.proficiency = :proficiency, s.updatedAt = :updatedAt where s.id = :id")
+    int updateState(@Param("id") UUID id,
+                    @Param("status") InterviewSession.Status status,
+                    @Param("questionNumber") int questionNumber,
+                    @Param("currentQuestion") String currentQuestion,
+                    @Param("currentDifficulty") String currentDifficulty,
+                    @Param("proficiency") String proficiency,
+                    @Param("updatedAt") Instant updatedAt);
+}
@@ -0,0 +1,9 @@
+package com.app.demo.repository;
+
+import com.app.demo.model.RoomEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface RoomEventRepository extends JpaRepository<RoomEvent, UUID> {
+}
@@ -0,0 +1,96 @@
+package com.app.demo.repository;
+
+import com.app.demo.model.SkillRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface SkillRollupRepository extends JpaRepository<SkillRollup, UUID> {
+
+    /**
+     * Totals of one skill across all users, for admin dashboards.
+     */
+    interface SkillTotals {
+        String getSkill();
+
+        long getAnswers();
+
+        long getScoreSum();
+
+        long getScores0To2();
+
+        long getScores3To4();
+
+        long getScores5To6();
+
+        long getScores7To8();
+
+        long getScores9To10();
+
+        long getBeginnerAnswers();
+
+        long getIntermediateAnswers();
+
+        long getAdvancedAnswers();
+    }
+
+    List<SkillRollup> findByUserEmailAndDayBetween(String userEmail, LocalDate from, LocalDate to);
+
+    List<SkillRollup> findByUserEmailAndSkillAndDayBetweenOrderByDay(String userEmail, String skill,
+                                                                   LocalDate from, LocalDate to);
+
+    @Query("select r.skill as skill, sum(r.answers) as answers, sum(r.scoreSum) as scoreSum, " +
+            "sum(r.scores0To2) as scores0To2, sum(r.scores3To4) as scores3To4, sum(r.scores5To6) as scores5To6, " +
+            "sum(r.scores7To8) as scores7To8, sum(r.scores9To10) as scores9To10, " +
+            "sum(r.beginnerAnswers) as beginnerAnswers, sum(r.intermediateAnswers) as intermediateAnswers, " +
+            "sum(r.advancedAnswers) as advancedAnswers " +
+            "from SkillRollup r where r.day between :from and :to group by r.skill order by sum(r.answers) desc")
+    List<SkillTotals> totalsBySkill(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Adds a batch's counts to the (user, skill, day) row, creating it if needed. Concurrent
+     * writers from several instances are safe: the increment happens inside the upsert.
+     */
+    @Modifying
+    @Query(value = "insert into interview_skill_rollups (id, user_email, skill, day, answers, score_sum, " +
+            "scores_0_2, scores_3_4, scores_5_6, scores_7_8, scores_9_10, " +
+            "beginner_answers, intermediate_answers, advanced_answers, last_proficiency, updated_at) " +
+            "values (:id, :userEmail, :skill, :day, :answers, :scoreSum, :s0, :s3, :s5, :s7, :s9, " +
+            ":beginner, :intermediate, :advanced, :proficiency, :updatedAt) " +
+            "on conflict (user_email, skill, day) do update set " +
+            "answers = interview_skill_rollups.answers + excluded.answers, " +
+            "score_sum = interview_skill_rollups.score_sum + excluded.score_sum, " +
+            "scores_0_2 = interview_skill_rollups.scores_0_2 + excluded.scores_0_2, " +
+            "scores_3_4 = interview_skill_rollups.scores_3_4 + excluded.scores_3_4, " +
+            "scores_5_6 = interview_skill_rollups.scores_5_6 + excluded.scores_5_6, " +
+            "scores_7_8 = interview_skill_rollups.scores_7_8 + excluded.scores_7_8, " +
+            "scores_9_10 = interview_skill_rollups.scores_9_10 + excluded.scores_9_10, " +
+            "beginner_answers = interview_skill_rollups.beginner_answers + excluded.beginner_answers, " +
+            "intermediate_answers = interview_skill_rollups.intermediate_answers + excluded.intermediate_answers, " +
+            "advanced_answers = interview_skill_rollups.advanced_answers + excluded.advanced_answers, " +
+            "last_proficiency = coalesce(excluded.last_proficiency, interview_skill_rollups.last_proficiency), " +
+            "updated_at = excluded.updated_at",
+            nativeQuery = true)
+    int addToRollup(@Param("id") UUID id,
+                    @Param("userEmail") String userEmail,
+                    @Param("skill") String skill,
+                    @Param("day") LocalDate day,
+                    @Param("answers") long answers,
+                    @Param("scoreSum") long scoreSum,
+                    @Param("s0") long scores0To2,
+                    @Param("s3") long scores3To4,
+                    @Param("s5") long scores5To6,
+                    @Param("s7") long scores7To8,
+                    @Param("s9") long scores9To10,
+                    @Param("beginner") long beginnerAnswers,
+                    @Param("intermediate") long intermediateAnswers,
+                    @Param("advanced") long advancedAnswers,
+                    @Param("proficiency") String lastProficiency,
+                    @Param("updatedAt") Instant updatedAt);
+}
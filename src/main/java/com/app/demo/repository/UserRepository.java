@@ -2,10 +2,16 @@ package com.app.demo.repository;
 
 import com.app.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // Read-only so they are served by the replica pool when one is configured
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
+
+    @Transactional(readOnly = true)
     boolean existsByEmail(String email);
 }
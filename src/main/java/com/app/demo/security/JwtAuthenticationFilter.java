@@ -1,6 +1,8 @@
 package com.app.demo.security;
 
 import com.app.demo.service.CustomUserDetailsService;
+import com.app.demo.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,12 +36,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         log.debug("JWT Filter - URI: {}, Token present: {}", request.getRequestURI(), token != null);
 
         if (StringUtils.hasText(token)) {
-            boolean valid = jwtTokenProvider.validateToken(token);
+            Claims claims = jwtTokenProvider.parseClaims(token);
+            boolean valid = claims != null && !tokenRevocationService.isRevoked(claims.getId());
             log.debug("JWT Filter - Token valid: {}", valid);
 
             if (valid) {
                 try {
-                    String email = jwtTokenProvider.getEmailFromToken(token);
+                    String email = claims.getSubject();
                     log.debug("JWT Filter - Email from token: {}", email);
                     UserDetails userDetails = userDetailsService.loadUserByUsername(email);
                     log.debug("JWT Filter - User loaded: {}", userDetails.getUsername());
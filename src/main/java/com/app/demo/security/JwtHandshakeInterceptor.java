@@ -0,0 +1,55 @@
+package com.app.demo.security;
+
+import com.app.demo.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Authenticates WebSocket handshakes. Browsers cannot set an Authorization header on
+ * {@code new WebSocket(...)}, so the JWT is accepted from the {@code token} query
+ * parameter as well. The authenticated email is stored under {@link #EMAIL_ATTRIBUTE}.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String EMAIL_ATTRIBUTE = "email";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = null;
+        String header = request.getHeaders().getFirst("Authorization");
+        if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+            token = header.substring(7);
+        } else {
+            token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+        }
+
+        Claims claims = StringUtils.hasText(token) ? jwtTokenProvider.parseClaims(token) : null;
+        if (claims == null || tokenRevocationService.isRevoked(claims.getId())) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(EMAIL_ATTRIBUTE, claims.getSubject());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
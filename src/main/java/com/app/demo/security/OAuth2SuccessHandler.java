@@ -2,6 +2,7 @@ package com.app.demo.security;
 
 import com.app.demo.model.User;
 import com.app.demo.repository.UserRepository;
+import com.app.demo.service.ReadYourWrites;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +19,7 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request,
@@ -28,15 +30,17 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
         String email = oAuth2User.getAttribute("email");
         String name = oAuth2User.getAttribute("name");
 
-        // Create or update user in database
-        userRepository.findByEmail(email).orElseGet(() ->
-                userRepository.save(User.builder()
-                        .email(email)
-                        .name(name)
-                        .role(User.Role.USER)
-                        .authProvider(User.AuthProvider.GOOGLE)
-                        .build())
-        );
+        // Create or update user in database; lookup and insert both on the primary
+        readYourWrites.onPrimary(() -> userRepository.findByEmail(email).orElseGet(() -> {
+            User created = userRepository.save(User.builder()
+                    .email(email)
+                    .name(name)
+                    .role(User.Role.USER)
+                    .authProvider(User.AuthProvider.GOOGLE)
+                    .build());
+            readYourWrites.recordWrite(email);
+            return created;
+        }));
 
         String token = jwtTokenProvider.generateToken(email);
 
@@ -0,0 +1,146 @@
+package com.app.demo.service;
+
+import com.app.demo.model.InterviewAnswer;
+import com.app.demo.model.InterviewSession;
+import com.app.demo.model.dto.InterviewSessionView;
+import com.app.demo.model.dto.PreviousResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory state of a hot interview session. Mutations happen under the instance
+ * monitor; {@link #tryAcquire()} keeps a second request for the same session from
+ * running an LLM round trip concurrently with the first.
+ */
+final class ActiveInterviewSession {
+
+    private final UUID id;
+    private final String userEmail;
+    private final String skill;
+    private final List<InterviewAnswer> answers;
+    private final AtomicBoolean busy = new AtomicBoolean();
+
+    private InterviewSession.Status status;
+    private int questionNumber;
+    private String currentQuestion;
+    private String currentDifficulty;
+    private String proficiency;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    ActiveInterviewSession(InterviewSession session, List<InterviewAnswer> answers) {
+        this.id = session.getId();
+        this.userEmail = session.getUserEmail();
+        this.skill = session.getSkill();
+        this.status = session.getStatus();
+        this.questionNumber = session.getQuestionNumber();
+        this.currentQuestion = session.getCurrentQuestion();
+        this.currentDifficulty = session.getCurrentDifficulty();
+        this.proficiency = session.getProficiency();
+        this.answers = new ArrayList<>(answers);
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    String userEmail() {
+        return userEmail;
+    }
+
+    String skill() {
+        return skill;
+    }
+
+    long lastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    boolean tryAcquire() {
+        return busy.compareAndSet(false, true);
+    }
+
+    void release() {
+        busy.set(false);
+    }
+
+    boolean isBusy() {
+        return busy.get();
+    }
+
+    synchronized boolean isActive() {
+        return status == InterviewSession.Status.ACTIVE;
+    }
+
+    synchronized int questionNumber() {
+        return questionNumber;
+    }
+
+    synchronized String currentQuestion() {
+        return currentQuestion;
+    }
+
+    synchronized String currentDifficulty() {
+        return currentDifficulty;
+    }
+
+    synchronized String proficiency() {
+        return proficiency;
+    }
+
+    synchronized List<PreviousResult> previousResults() {
+        List<PreviousResult> results = new ArrayList<>(answers.size());
+        for (InterviewAnswer answer : answers) {
+            results.add(new PreviousResult(answer.getQuestion(), (double) answer.getScore()));
+        }
+        return results;
+    }
+
+    synchronized void askQuestion(String question, String difficulty, String proficiency) {
+        this.questionNumber++;
+        this.currentQuestion = question;
+        this.currentDifficulty = difficulty;
+        this.proficiency = proficiency;
+    }
+
+    synchronized void recordAnswer(InterviewAnswer answer) {
+        answers.add(answer);
+        currentQuestion = null;
+    }
+
+    synchronized void complete() {
+        status = InterviewSession.Status.COMPLETED;
+        currentQuestion = null;
+    }
+
+    synchronized InterviewSession snapshot() {
+        return InterviewSession.builder()
+                .id(id)
+                .userEmail(userEmail)
+                .skill(skill)
+                .status(status)
+                .questionNumber(questionNumber)
+                .currentQuestion(currentQuestion)
+                .currentDifficulty(currentDifficulty)
+                .proficiency(proficiency)
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    synchronized InterviewSessionView view() {
+        List<InterviewSessionView.SessionAnswerView> answerViews = new ArrayList<>(answers.size());
+        for (InterviewAnswer a : answers) {
+            answerViews.add(new InterviewSessionView.SessionAnswerView(a.getQuestionNumber(), a.getQuestion(),
+                    a.getDifficulty(), a.getTranscript(), a.getScore(), a.getFeedback()));
+        }
+        return new InterviewSessionView(id, skill, status.name(), questionNumber,
+                currentQuestion, currentDifficulty, proficiency, answerViews);
+    }
+}
@@ -0,0 +1,172 @@
+package com.app.demo.service;
+
+import com.app.demo.audio.OggOpusWriter;
+import com.app.demo.audio.OpusPackets;
+import com.app.demo.audio.PcmFramer;
+import com.app.demo.audio.PreprocessedAudio;
+import com.app.demo.audio.SilenceTrimmer;
+import com.app.demo.audio.VoiceActivityDetector;
+import com.app.demo.audio.WavReader;
+import com.app.demo.audio.WavWriter;
+import com.app.demo.audio.WebmOpusDemuxer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Shrinks recorded answers before they are sent to Whisper. WAV/PCM is downmixed,
+ * resampled to 16 kHz mono and silence-trimmed. WebM/Opus is trimmed at packet level
+ * and remuxed to Ogg Opus without decoding: the packets are already far smaller than
+ * any PCM re-encode would be, and speech/silence is visible in their VBR sizes.
+ * Anything unrecognised, or anything that fails to parse, is uploaded unchanged.
+ */
+@Service
+@Slf4j
+public class AudioPreprocessor {
+
+    private static final int BLOCK_SAMPLES = 4096;
+
+    private final boolean enabled;
+    private final double pcmMinLevel;
+    private final double pcmRatio;
+    private final double opusMinBytes;
+    private final double opusRatio;
+    private final int preRollFrames;
+    private final int hangoverFrames;
+    private final int maxGapFrames;
+
+    private final Counter bytesSaved;
+    private final DistributionSummary millisTrimmed;
+    private final DistributionSummary processingMillis;
+
+    public AudioPreprocessor(MeterRegistry meterRegistry,
+                             @Value("${audio.preprocess.enabled:true}") boolean enabled,
+                             @Value("${audio.preprocess.pcm-min-level:0.003}") double pcmMinLevel,
+                             @Value("${audio.preprocess.pcm-ratio:3.0}") double pcmRatio,
+                             @Value("${audio.preprocess.opus-min-bytes:12}") double opusMinBytes,
+                             @Value("${audio.preprocess.opus-ratio:1.6}") double opusRatio,
+                             @Value("${audio.preprocess.pre-roll-ms:200}") int preRollMillis,
+                             @Value("${audio.preprocess.hangover-ms:300}") int hangoverMillis,
+                             @Value("${audio.preprocess.max-gap-ms:500}") int maxGapMillis) {
+        this.enabled = enabled;
+        this.pcmMinLevel = pcmMinLevel;
+        this.pcmRatio = pcmRatio;
+        this.opusMinBytes = opusMinBytes;
+        this.opusRatio = opusRatio;
+        this.preRollFrames = preRollMillis / 20;
+        this.hangoverFrames = hangoverMillis / 20;
+        this.maxGapFrames = maxGapMillis / 20;
+        this.bytesSaved = Counter.builder("interview.audio.bytes.saved").baseUnit("bytes").register(meterRegistry);
+        this.millisTrimmed = DistributionSummary.builder("interview.audio.trimmed")
+                .baseUnit("milliseconds").register(meterRegistry);
+        this.processingMillis = DistributionSummary.builder("interview.audio.preprocess.duration")
+                .baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    public PreprocessedAudio preprocess(byte[] audio) {
+        long startNanos = System.nanoTime();
+        if (!enabled) {
+            return PreprocessedAudio.passthrough(audio, "audio.webm", 0);
+        }
+        PreprocessedAudio result;
+        try {
+            if (WavReader.isWav(audio)) {
+                result = preprocessWav(audio, startNanos);
+            } else if (WebmOpusDemuxer.isWebm(audio)) {
+                result = preprocessWebm(audio, startNanos);
+            } else {
+                result = PreprocessedAudio.passthrough(audio, "audio.webm", elapsedMillis(startNanos));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Audio preprocessing failed, uploading original: {}", e.getMessage());
+            result = PreprocessedAudio.passthrough(audio, "audio.webm", elapsedMillis(startNanos));
+        }
+
+        bytesSaved.increment(Math.max(0, result.bytesSaved()));
+        millisTrimmed.record(result.millisTrimmed());
+        processingMillis.record(result.processingMillis());
+        log.info("Audio preprocessed: {} -> {} bytes ({} saved), {} ms of {} ms trimmed, took {} ms",
+                result.originalBytes(), result.data().length, result.bytesSaved(),
+                result.millisTrimmed(), result.originalMillis(), result.processingMillis());
+        return result;
+    }
+
+    public VoiceActivityDetector pcmDetector() {
+        return new VoiceActivityDetector(pcmMinLevel, pcmRatio);
+    }
+
+    public VoiceActivityDetector opusDetector() {
+        return new VoiceActivityDetector(opusMinBytes, opusRatio);
+    }
+
+    public <F> SilenceTrimmer<F> trimmer(VoiceActivityDetector vad, Consumer<F> sink) {
+        return new SilenceTrimmer<>(vad, sink, preRollFrames, hangoverFrames, maxGapFrames);
+    }
+
+    /**
+     * Level used for VAD on compressed Opus: bytes per 20 ms of audio.
+     */
+    public static double opusLevel(byte[] packet, int samples) {
+        return samples == 0 ? 0 : packet.length * (960.0 / samples);
+    }
+
+    private PreprocessedAudio preprocessWav(byte[] audio, long startNanos) throws IOException {
+        WavReader reader = new WavReader(new ByteArrayInputStream(audio));
+        WavWriter writer = new WavWriter(audio.length / 4);
+        SilenceTrimmer<short[]> trimmer = trimmer(pcmDetector(), writer::write);
+        PcmFramer framer = new PcmFramer(reader.sampleRate(),
+                frame -> trimmer.accept(frame, PcmFramer.rms(frame), PcmFramer.FRAME_MILLIS));
+
+        float[] block = new float[BLOCK_SAMPLES];
+        int n;
+        while ((n = reader.read(block)) > 0) {
+            framer.accept(block, n);
+        }
+        framer.finish();
+        trimmer.finish();
+
+        return new PreprocessedAudio(writer.finish(), "audio.wav", trimmer.hasSpeech(), audio.length,
+                trimmer.inputMillis(), trimmer.outputMillis(), elapsedMillis(startNanos));
+    }
+
+    private PreprocessedAudio preprocessWebm(byte[] audio, long startNanos) throws IOException {
+        OggOpusWriter[] writer = new OggOpusWriter[1];
+        SilenceTrimmer<OpusFrame> trimmer = trimmer(opusDetector(),
+                frame -> writer[0].write(frame.packet(), frame.samples()));
+
+        WebmOpusDemuxer demuxer = new WebmOpusDemuxer(new WebmOpusDemuxer.Listener() {
+            @Override
+            public void onHeader(byte[] opusHead) {
+                writer[0] = new OggOpusWriter(opusHead, audio.length);
+            }
+
+            @Override
+            public void onPacket(byte[] packet) {
+                int samples = OpusPackets.samples(packet, 0, packet.length);
+                trimmer.accept(new OpusFrame(packet, samples), opusLevel(packet, samples), samples / 48.0);
+            }
+        });
+        demuxer.feed(audio, 0, audio.length);
+        trimmer.finish();
+
+        if (writer[0] == null) {
+            return PreprocessedAudio.passthrough(audio, "audio.webm", elapsedMillis(startNanos));
+        }
+        return new PreprocessedAudio(writer[0].finish(), "audio.ogg", trimmer.hasSpeech(), audio.length,
+                trimmer.inputMillis(), trimmer.outputMillis(), elapsedMillis(startNanos));
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public record OpusFrame(byte[] packet, int samples) {
+    }
+}
@@ -6,12 +6,18 @@ import com.app.demo.model.dto.LoginRequest;
 import com.app.demo.model.dto.RegisterRequest;
 import com.app.demo.repository.UserRepository;
 import com.app.demo.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +27,11 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final ReadYourWrites readYourWrites;
+    private final TokenRevocationService tokenRevocationService;
 
+    // Read-write transaction: the existence check must see the primary, not a lagging replica
+    @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already registered");
@@ -36,6 +46,7 @@ public class AuthService {
                 .build();
 
         userRepository.save(user);
+        readYourWrites.recordWrite(user.getEmail());
 
         String token = jwtTokenProvider.generateToken(user.getEmail());
         return new AuthResponse(token, user.getEmail(), user.getName());
@@ -52,4 +63,37 @@ public class AuthService {
 
         return new AuthResponse(token, user.getEmail(), user.getName());
     }
+
+    public void logout(String token) {
+        Claims claims = token != null ? jwtTokenProvider.parseClaims(token) : null;
+        if (claims == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+        revoke(claims);
+    }
+
+    /**
+     * Admin revocation, by token or by id. A bare id carries no expiry, so it is kept
+     * for the longest lifetime a token can have.
+     */
+    public void revoke(String token, String jti) {
+        if (token != null && !token.isBlank()) {
+            Claims claims = jwtTokenProvider.parseClaims(token);
+            if (claims == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token is invalid or already expired");
+            }
+            revoke(claims);
+        } else if (jti != null && !jti.isBlank()) {
+            tokenRevocationService.revoke(jti, null, Instant.now().plusMillis(jwtTokenProvider.getExpiration()));
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either token or jti is required");
+        }
+    }
+
+    private void revoke(Claims claims) {
+        if (claims.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token has no id and cannot be revoked");
+        }
+        tokenRevocationService.revoke(claims.getId(), claims.getSubject(), claims.getExpiration().toInstant());
+    }
 }
@@ -0,0 +1,431 @@
+package com.app.demo.service;
+
+import com.app.demo.config.LifecyclePhases;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Persists in-memory caches across restarts. Caches register a {@link Section}; their
+ * unexpired entries are written to a single binary file periodically and when the
+ * context stops. After a restart the file is memory-mapped on the first lookup and only
+ * its key index is read; values are copied out of the mapping when a cache misses.
+ *
+ * <p>Layout: magic, format version, written-at, section count, then per section its
+ * name, entry count and entries of (key, expires-at, value length, value). Strings are
+ * length-prefixed UTF-8. A file with another magic or version is ignored.
+ *
+ * <p>The snapshot only stands in for the in-memory caches during the warm-start window;
+ * after that a miss goes to the shared tier or upstream. Keys another instance has
+ * replaced are masked by {@link #invalidate} until a write drops them from the file.
+ */
+@Component
+@Slf4j
+public class CacheSnapshotStore implements SmartLifecycle {
+
+    private static final int MAGIC = 0x49435331; // "ICS1"
+    private static final short FORMAT_VERSION = 1;
+
+    public interface Section {
+        String name();
+
+        void collect(EntrySink sink);
+
+        static Section of(String name, Consumer<EntrySink> collector) {
+            return new Section() {
+                @Override
+                public String name() {
+                    return name;
+                }
+
+                @Override
+                public void collect(EntrySink sink) {
+                    collector.accept(sink);
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntrySink {
+        void accept(String key, long expiresAt, byte[] value);
+    }
+
+    public record Entry(byte[] value, long expiresAt) {
+    }
+
+    private final List<Section> sections = new CopyOnWriteArrayList<>();
+    private final boolean enabled;
+    private final Path path;
+    private final long warmWindowMillis;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, WarmStats> warmStats = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> invalidated = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot;
+    private volatile boolean snapshotLoaded;
+    private volatile long startedAt;
+    private volatile boolean running;
+
+    public CacheSnapshotStore(MeterRegistry meterRegistry,
+                              @Value("${cache.snapshot.enabled:true}") boolean enabled,
+                              @Value("${cache.snapshot.path:${java.io.tmpdir}/interview-app-cache.snapshot}") String path,
+                              @Value("${cache.snapshot.warm-window-ms:60000}") long warmWindowMillis) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.warmWindowMillis = warmWindowMillis;
+    }
+
+    public void register(Section section) {
+        sections.add(section);
+    }
+
+    /**
+     * Returns the persisted entry for {@code key} if we are still in the warm-start window
+     * and the snapshot has one that has not expired or been invalidated. Also counts the
+     * lookup as restored or missed for the warm-start window.
+     */
+    public Entry restore(String section, String key) {
+        if (!inWarmWindow()) {
+            return null;
+        }
+        Snapshot current = enabled && !isInvalidated(section, key) ? loadedSnapshot() : null;
+        Entry entry = current != null ? current.read(section, key, System.currentTimeMillis()) : null;
+        record(section, entry != null ? "restored" : "miss");
+        return entry;
+    }
+
+    /**
+     * Stops {@link #restore} from returning the persisted value of {@code key}, and keeps
+     * the next write from carrying it forward. Called when another instance replaced or
+     * removed the entry.
+     */
+    public void invalidate(String section, String key) {
+        if (enabled) {
+            invalidated.computeIfAbsent(section, s -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private boolean isInvalidated(String section, String key) {
+        Set<String> keys = invalidated.get(section);
+        return keys != null && keys.contains(key);
+    }
+
+    public void recordHit(String section) {
+        record(section, "hit");
+    }
+
+    private boolean inWarmWindow() {
+        return startedAt != 0 && System.currentTimeMillis() - startedAt <= warmWindowMillis;
+    }
+
+    private void record(String section, String outcome) {
+        if (!inWarmWindow()) {
+            return;
+        }
+        WarmStats stats = warmStats.computeIfAbsent(section, name -> new WarmStats(meterRegistry, name));
+        stats.record(outcome);
+    }
+
+    @Scheduled(fixedDelayString = "${cache.snapshot.interval-ms:60000}",
+            initialDelayString = "${cache.snapshot.interval-ms:60000}")
+    public void scheduledWrite() {
+        logWarmStats();
+        write();
+    }
+
+    public synchronized void write() {
+        if (!enabled) {
+            return;
+        }
+        Snapshot previous = loadedSnapshot();
+        long now = System.currentTimeMillis();
+        // Keys invalidated from here on stay masked: the file may still be written with
+        // a value collected before the invalidation arrived
+        Map<String, Set<String>> masked = new HashMap<>();
+        invalidated.forEach((section, keys) -> masked.put(section, new HashSet<>(keys)));
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        int entries = 0;
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.deleteIfExists(tmp);
+            createPrivateFile(tmp);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tmp, StandardOpenOption.TRUNCATE_EXISTING), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeLong(now);
+                out.writeInt(sections.size());
+                for (Section section : sections) {
+                    entries += writeSection(out, section, previous, now,
+                            masked.getOrDefault(section.name(), Set.of()));
+                }
+            }
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // Entries from the old file that nobody asked for are now in the new one, so
+            // lookups move to it. The old mapping is not unmapped by hand: a restore() may
+            // still be copying from it, and it is released once no reader holds it.
+            snapshot = Snapshot.open(path);
+            snapshotLoaded = true;
+            masked.forEach((section, keys) -> invalidated.computeIfPresent(section, (s, current) -> {
+                current.removeAll(keys);
+                return current.isEmpty() ? null : current;
+            }));
+            log.debug("Wrote cache snapshot with {} entries to {}", entries, path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write cache snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private int writeSection(DataOutputStream out, Section section, Snapshot previous, long now,
+                             Set<String> masked) throws IOException {
+        List<String> keys = new ArrayList<>();
+        List<Entry> values = new ArrayList<>();
+        Set<String> seen = new HashSet<>(masked);
+        section.collect((key, expiresAt, value) -> {
+            if (expiresAt > now && seen.add(key)) {
+                keys.add(key);
+                values.add(new Entry(value, expiresAt));
+            }
+        });
+        if (previous != null) {
+            previous.forEachValid(section.name(), now, (key, expiresAt, value) -> {
+                if (seen.add(key)) {
+                    keys.add(key);
+                    values.add(new Entry(value, expiresAt));
+                }
+            });
+        }
+
+        writeString(out, section.name());
+        out.writeInt(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Entry entry = values.get(i);
+            writeString(out, keys.get(i));
+            out.writeLong(entry.expiresAt());
+            out.writeInt(entry.value().length);
+            out.write(entry.value());
+        }
+        return keys.size();
+    }
+
+    private Snapshot loadedSnapshot() {
+        if (!snapshotLoaded) {
+            synchronized (this) {
+                if (!snapshotLoaded) {
+                    snapshot = Snapshot.open(path);
+                    snapshotLoaded = true;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private void logWarmStats() {
+        if (startedAt == 0 || System.currentTimeMillis() - startedAt <= warmWindowMillis || warmStats.isEmpty()) {
+            return;
+        }
+        warmStats.forEach((section, stats) -> log.info(
+                "Cache '{}' in the first {} s after start: {} hits, {} restored from snapshot, {} misses",
+                section, warmWindowMillis / 1000, stats.hits.get(), stats.restored.get(), stats.misses.get()));
+        warmStats.clear();
+    }
+
+    private static void createPrivateFile(Path file) throws IOException {
+        // The snapshot may hold upstream access tokens
+        try {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(file);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public void start() {
+        startedAt = System.currentTimeMillis();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        write();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return LifecyclePhases.AROUND_WEB_SERVER;
+    }
+
+    private static final class WarmStats {
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong restored = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final Counter hitCounter;
+        private final Counter restoredCounter;
+        private final Counter missCounter;
+
+        WarmStats(MeterRegistry registry, String section) {
+            this.hitCounter = counter(registry, section, "hit");
+            this.restoredCounter = counter(registry, section, "restored");
+            this.missCounter = counter(registry, section, "miss");
+        }
+
+        private static Counter counter(MeterRegistry registry, String section, String outcome) {
+            return Counter.builder("cache.warmstart.lookups")
+                    .description("Cache lookups during the warm-start window after a restart")
+                    .tag("cache", section)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+
+        void record(String outcome) {
+            switch (outcome) {
+                case "hit" -> { hits.incrementAndGet(); hitCounter.increment(); }
+                case "restored" -> { restored.incrementAndGet(); restoredCounter.increment(); }
+                default -> { misses.incrementAndGet(); missCounter.increment(); }
+            }
+        }
+    }
+
+    /**
+     * Read-only view of a snapshot file. Only the index (keys, expiry, value offsets) is
+     * built on open; values stay in the mapping until asked for.
+     */
+    private static final class Snapshot {
+
+        private final MappedByteBuffer buffer;
+        private final Map<String, Map<String, Slot>> index;
+
+        private record Slot(int offset, int length, long expiresAt) {
+        }
+
+        private Snapshot(MappedByteBuffer buffer, Map<String, Map<String, Slot>> index) {
+            this.buffer = buffer;
+            this.index = index;
+        }
+
+        static Snapshot open(Path path) {
+            if (!Files.isRegularFile(path)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.remaining() < 18 || buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                    log.info("Ignoring cache snapshot {} with an unknown format", path);
+                    return null;
+                }
+                long writtenAt = buffer.getLong();
+                int sectionCount = buffer.getInt();
+                Map<String, Map<String, Slot>> index = new HashMap<>();
+                int entries = 0;
+                for (int s = 0; s < sectionCount; s++) {
+                    String section = readString(buffer);
+                    int count = buffer.getInt();
+                    Map<String, Slot> slots = new HashMap<>(Math.max(16, count * 2));
+                    for (int i = 0; i < count; i++) {
+                        String key = readString(buffer);
+                        long expiresAt = buffer.getLong();
+                        int length = buffer.getInt();
+                        if (length < 0 || length > buffer.remaining()) {
+                            throw new IllegalArgumentException("value length " + length);
+                        }
+                        slots.put(key, new Slot(buffer.position(), length, expiresAt));
+                        buffer.position(buffer.position() + length);
+                    }
+                    index.put(section, slots);
+                    entries += count;
+                }
+                log.info("Mapped cache snapshot {} ({} entries, written {} s ago)",
+                        path, entries, (System.currentTimeMillis() - writtenAt) / 1000);
+                return new Snapshot(buffer, index);
+            } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+                log.warn("Ignoring unreadable cache snapshot {}: {}", path, e.getMessage());
+                return null;
+            }
+        }
+
+        Entry read(String section, String key, long now) {
+            Map<String, Slot> slots = index.get(section);
+            Slot slot = slots != null ? slots.get(key) : null;
+            if (slot == null || slot.expiresAt() <= now) {
+                return null;
+            }
+            return new Entry(copy(slot), slot.expiresAt());
+        }
+
+        void forEachValid(String section, long now, EntrySink sink) {
+            Map<String, Slot> slots = index.get(section);
+            if (slots == null) {
+                return;
+            }
+            slots.forEach((key, slot) -> {
+                if (slot.expiresAt() > now) {
+                    sink.accept(key, slot.expiresAt(), copy(slot));
+                }
+            });
+        }
+
+        private byte[] copy(Slot slot) {
+            byte[] value = new byte[slot.length()];
+            buffer.get(slot.offset(), value);
+            return value;
+        }
+
+        private static String readString(ByteBuffer buffer) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("string length " + length);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -10,16 +10,26 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        Optional<User> found;
+        if (readYourWrites.isRecent(email)) {
+            found = readYourWrites.onPrimary(() -> userRepository.findByEmail(email));
+        } else {
+            // A replica miss may just be lag behind a registration on another instance
+            found = userRepository.findByEmail(email)
+                    .or(() -> readYourWrites.onPrimary(() -> userRepository.findByEmail(email)));
+        }
+        User user = found
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return new org.springframework.security.core.userdetails.User(
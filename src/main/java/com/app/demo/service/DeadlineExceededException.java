@@ -0,0 +1,21 @@
+package com.app.demo.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The request's {@link RequestDeadline} passed before {@code stage} could finish.
+ */
+public class DeadlineExceededException extends ResponseStatusException {
+
+    private final String stage;
+
+    public DeadlineExceededException(String stage) {
+        super(HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded (" + stage + ")");
+        this.stage = stage;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+}
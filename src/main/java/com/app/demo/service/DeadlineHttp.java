@@ -0,0 +1,63 @@
+package com.app.demo.service;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * RestTemplates whose requests time out when the current {@link RequestDeadline} does:
+ * every request is created with the remaining budget (capped at the client's own maximum)
+ * as its timeout, is refused outright once nothing is left, and a timeout that ends at
+ * the deadline surfaces as {@link DeadlineExceededException} for its stage.
+ */
+final class DeadlineHttp {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private DeadlineHttp() {
+    }
+
+    static RestTemplate restTemplate(RestTemplateBuilder builder, String stage, Duration maxTimeout) {
+        // JDK HttpClient: an interrupted caller aborts its exchange instead of staying
+        // blocked in socket I/O, and one client keeps the connection pool across requests
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+        return builder
+                .requestFactory(() -> new RequestFactory(httpClient, stage, maxTimeout))
+                .additionalInterceptors(interceptor(stage))
+                .build();
+    }
+
+    private static ClientHttpRequestInterceptor interceptor(String stage) {
+        return (request, body, execution) -> {
+            try {
+                return execution.execute(request, body);
+            } catch (IOException e) {
+                RequestDeadline deadline = RequestDeadline.current();
+                if (deadline != null && deadline.isExpired()) {
+                    throw deadline.exceeded(stage);
+                }
+                throw e;
+            }
+        };
+    }
+
+    private record RequestFactory(HttpClient httpClient, String stage, Duration maxTimeout)
+            implements ClientHttpRequestFactory {
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+            factory.setReadTimeout(RequestDeadline.budget(stage, maxTimeout));
+            return factory.createRequest(uri, httpMethod);
+        }
+    }
+}
@@ -4,9 +4,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -17,8 +20,21 @@ public class EmailService {
     @Value("${aws.ses.from-email}")
     private String fromEmail;
 
+    @Value("${aws.ses.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    /**
+     * Opens the SES connection and runs request signing once via a read-only call.
+     */
+    public void warmUp() {
+        GetSendQuotaResponse quota = sesClient.getSendQuota();
+        log.debug("SES send quota: {} per 24h", quota.max24HourSend());
+    }
+
     public void sendEmail(String to, String subject, String body) {
+        Duration timeout = RequestDeadline.budget("ses", Duration.ofMillis(timeoutMillis));
         SendEmailRequest request = SendEmailRequest.builder()
+                .overrideConfiguration(o -> o.apiCallTimeout(timeout))
                 .source(fromEmail)
                 .destination(Destination.builder()
                         .toAddresses(to)
@@ -31,7 +47,16 @@ public class EmailService {
                         .build())
                 .build();
 
-        SendEmailResponse response = sesClient.sendEmail(request);
+        SendEmailResponse response;
+        try {
+            response = sesClient.sendEmail(request);
+        } catch (ApiCallTimeoutException e) {
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline != null && deadline.isExpired()) {
+                throw deadline.exceeded("ses");
+            }
+            throw e;
+        }
         log.info("Email sent successfully. Message ID: {}", response.messageId());
     }
 }
@@ -0,0 +1,270 @@
+package com.app.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Java Flight Recorder control. Admins can run ad-hoc recordings with the JDK's
+ * "default" (~1% overhead) or "profile" (~2%, more stack sampling) settings and
+ * download the .jfr. Independently, a low-overhead rolling recording keeps the last
+ * few minutes in memory and on disk; when a request is slower than the threshold it is
+ * dumped to {@code app.jfr.dump-dir}, at most once per cooldown, so the moments around a
+ * latency spike can be inspected (lock contention, allocation, socket reads) afterwards.
+ */
+@Service
+@Slf4j
+public class FlightRecorderService implements SmartLifecycle {
+
+    private static final Set<String> PROFILES = Set.of("default", "profile");
+
+    public record RecordingInfo(long id, String name, String profile, String state, Instant startTime,
+                                Duration maxDuration) {
+    }
+
+    public record DumpInfo(String name, long sizeBytes, Instant createdAt) {
+    }
+
+    private final boolean rollingEnabled;
+    private final Duration rollingMaxAge;
+    private final long rollingMaxSizeBytes;
+    private final long slowThresholdMillis;
+    private final long dumpCooldownMillis;
+    private final int maxDumps;
+    private final Path dumpDir;
+    private final Duration maxManualDuration;
+    private final Counter slowDumps;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private final Map<Long, String> recordingProfiles = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor dumper;
+
+    private volatile Recording rolling;
+    private volatile long lastDumpMillis;
+    private volatile boolean running;
+
+    public FlightRecorderService(MeterRegistry meterRegistry,
+                                 @Value("${app.jfr.rolling.enabled:true}") boolean rollingEnabled,
+                                 @Value("${app.jfr.rolling.max-age-seconds:300}") long rollingMaxAgeSeconds,
+                                 @Value("${app.jfr.rolling.max-size-mb:100}") long rollingMaxSizeMb,
+                                 @Value("${app.jfr.slow-request-threshold-ms:3000}") long slowThresholdMillis,
+                                 @Value("${app.jfr.dump-cooldown-ms:300000}") long dumpCooldownMillis,
+                                 @Value("${app.jfr.max-dumps:5}") int maxDumps,
+                                 @Value("${app.jfr.dump-dir:${java.io.tmpdir}/interview-app-jfr}") String dumpDir,
+                                 @Value("${app.jfr.max-recording-seconds:600}") long maxManualSeconds) {
+        this.rollingEnabled = rollingEnabled;
+        this.rollingMaxAge = Duration.ofSeconds(rollingMaxAgeSeconds);
+        this.rollingMaxSizeBytes = rollingMaxSizeMb * 1024 * 1024;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.dumpCooldownMillis = dumpCooldownMillis;
+        this.maxDumps = maxDumps;
+        this.dumpDir = Paths.get(dumpDir);
+        this.maxManualDuration = Duration.ofSeconds(maxManualSeconds);
+        this.slowDumps = Counter.builder("jfr.slow.request.dumps")
+                .description("Rolling JFR recordings dumped because a request crossed the latency threshold")
+                .register(meterRegistry);
+        // One dump at a time; a slow request arriving while one is written is already covered by it
+        this.dumper = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new CustomizableThreadFactory("jfr-dump-"), new ThreadPoolExecutor.DiscardPolicy());
+        this.dumper.allowCoreThreadTimeOut(true);
+    }
+
+    public RecordingInfo start(String profile, long durationSeconds) {
+        if (!PROFILES.contains(profile)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "profile must be one of " + PROFILES);
+        }
+        Duration duration = durationSeconds > 0
+                ? Duration.ofSeconds(Math.min(durationSeconds, maxManualDuration.toSeconds()))
+                : maxManualDuration;
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(profile));
+        } catch (IOException | ParseException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Cannot load JFR settings: " + profile);
+        }
+        recording.setName("admin-" + profile + "-" + Instant.now());
+        recording.setToDisk(true);
+        // Stops on its own if nobody comes back for it; the data stays until it is downloaded or deleted
+        recording.setDuration(duration);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        recordingProfiles.put(recording.getId(), profile);
+        log.info("Started JFR recording {} with {} settings for up to {}", recording.getId(), profile, duration);
+        return info(recording);
+    }
+
+    public List<RecordingInfo> list() {
+        return recordings.values().stream().map(this::info).toList();
+    }
+
+    /**
+     * Stops the recording (if still running) and writes it to a temporary file, which the
+     * caller streams and deletes. The recording itself is closed.
+     */
+    public Path stop(long id) throws IOException {
+        Recording recording = recordings.remove(id);
+        recordingProfiles.remove(id);
+        if (recording == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recording not found");
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+            recording.dump(file);
+            return file;
+        } finally {
+            recording.close();
+        }
+    }
+
+    public void delete(long id) {
+        Recording recording = recordings.remove(id);
+        recordingProfiles.remove(id);
+        if (recording == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recording not found");
+        }
+        recording.close();
+    }
+
+    /**
+     * Called with the latency of every monitored request; dumps the rolling recording when
+     * it crosses the threshold and the cooldown has passed.
+     */
+    public void onRequestCompleted(String endpoint, long millis) {
+        Recording current = rolling;
+        if (current == null || millis < slowThresholdMillis) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (now - lastDumpMillis < dumpCooldownMillis) {
+                return;
+            }
+            lastDumpMillis = now;
+        }
+        dumper.execute(() -> dumpRolling(current, endpoint, millis));
+    }
+
+    private void dumpRolling(Recording recording, String endpoint, long millis) {
+        try {
+            Files.createDirectories(dumpDir);
+            Path file = dumpDir.resolve("slow-" + Instant.now().toString().replace(':', '-') + ".jfr");
+            recording.dump(file);
+            slowDumps.increment();
+            log.warn("Request to {} took {} ms, dumped the last {} of JFR data to {}",
+                    endpoint, millis, rollingMaxAge, file);
+            pruneDumps();
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Dumping the rolling JFR recording failed: {}", e.getMessage());
+        }
+    }
+
+    private void pruneDumps() throws IOException {
+        List<Path> dumps = dumpFiles();
+        for (int i = 0; i < dumps.size() - maxDumps; i++) {
+            Files.deleteIfExists(dumps.get(i));
+        }
+    }
+
+    public List<DumpInfo> dumps() throws IOException {
+        List<DumpInfo> infos = new ArrayList<>();
+        for (Path file : dumpFiles()) {
+            infos.add(new DumpInfo(file.getFileName().toString(), Files.size(file),
+                    Files.getLastModifiedTime(file).toInstant()));
+        }
+        return infos;
+    }
+
+    /**
+     * A dump by name; only names of existing dumps are accepted, so the path cannot escape the dump directory.
+     */
+    public Path dump(String name) throws IOException {
+        return dumpFiles().stream()
+                .filter(file -> file.getFileName().toString().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Dump not found"));
+    }
+
+    // Oldest first
+    private List<Path> dumpFiles() throws IOException {
+        if (!Files.isDirectory(dumpDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dumpDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+        }
+    }
+
+    private RecordingInfo info(Recording recording) {
+        return new RecordingInfo(recording.getId(), recording.getName(),
+                recordingProfiles.getOrDefault(recording.getId(), "default"), recording.getState().name(),
+                recording.getStartTime(), recording.getDuration());
+    }
+
+    @Override
+    public void start() {
+        // Running even without the rolling recording, so stop() still closes admin recordings
+        running = true;
+        if (!rollingEnabled) {
+            return;
+        }
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("rolling");
+            // Make contended locks (e.g. LightcastTokenService.getAccessToken) and slow
+            // socket reads visible at a lower threshold than the default settings use
+            recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(10)).withStackTrace();
+            recording.enable("jdk.SocketRead").withThreshold(Duration.ofMillis(10)).withStackTrace();
+            recording.setToDisk(true);
+            recording.setMaxAge(rollingMaxAge);
+            recording.setMaxSize(rollingMaxSizeBytes);
+            recording.start();
+            rolling = recording;
+            log.info("Rolling JFR recording started (last {}, slow-request threshold {} ms)",
+                    rollingMaxAge, slowThresholdMillis);
+        } catch (IOException | ParseException | IllegalStateException e) {
+            log.warn("Rolling JFR recording not available: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        Recording recording = rolling;
+        rolling = null;
+        if (recording != null) {
+            recording.close();
+        }
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+        dumper.shutdown();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,190 @@
+package com.app.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the Groq chat model for each kind of request. Every operation has an ordered
+ * list of acceptable models (most preferred first; a model not listed is never used for
+ * that operation) with its own temperature and token limit. Among the healthy candidates
+ * the router takes the most preferred one whose observed latency is within a tolerance
+ * of the fastest; models with a high recent error rate are only tried as a last resort.
+ */
+@Component
+@Slf4j
+public class GroqModelRouter {
+
+    public enum Operation {
+        QUESTIONS("questions", true),
+        ADAPTIVE_QUESTION("adaptive-question", true),
+        SCORING("scoring", false);
+
+        private final String tag;
+        private final boolean idempotent;
+
+        Operation(String tag, boolean idempotent) {
+            this.tag = tag;
+            this.idempotent = idempotent;
+        }
+
+        public String tag() {
+            return tag;
+        }
+
+        /**
+         * Whether a duplicate request is harmless (read-style generation), so it may be hedged.
+         */
+        public boolean idempotent() {
+            return idempotent;
+        }
+    }
+
+    public record Route(Operation operation, String model, double temperature, int maxTokens) {
+    }
+
+    private static final double ALPHA = 0.2;
+
+    private final Map<Operation, List<Route>> candidates = new EnumMap<>(Operation.class);
+    private final Map<Route, ModelStats> stats = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final double latencyTolerance;
+    private final double maxErrorRate;
+    private final long cooldownMillis;
+
+    public GroqModelRouter(MeterRegistry meterRegistry,
+                           @Value("${groq.routing.questions.models:${groq.model}}") List<String> questionModels,
+                           @Value("${groq.routing.questions.temperature:${groq.temperature}}") double questionTemperature,
+                           @Value("${groq.routing.questions.max-tokens:${groq.max-tokens}}") int questionMaxTokens,
+                           @Value("${groq.routing.adaptive-question.models:${groq.model}}") List<String> adaptiveModels,
+                           @Value("${groq.routing.adaptive-question.temperature:0.7}") double adaptiveTemperature,
+                           @Value("${groq.routing.adaptive-question.max-tokens:250}") int adaptiveMaxTokens,
+                           @Value("${groq.routing.scoring.models:${groq.model}}") List<String> scoringModels,
+                           @Value("${groq.routing.scoring.temperature:0.3}") double scoringTemperature,
+                           @Value("${groq.routing.scoring.max-tokens:300}") int scoringMaxTokens,
+                           @Value("${groq.routing.latency-tolerance:0.2}") double latencyTolerance,
+                           @Value("${groq.routing.max-error-rate:0.5}") double maxErrorRate,
+                           @Value("${groq.routing.cooldown-ms:30000}") long cooldownMillis) {
+        this.meterRegistry = meterRegistry;
+        this.latencyTolerance = latencyTolerance;
+        this.maxErrorRate = maxErrorRate;
+        this.cooldownMillis = cooldownMillis;
+        register(Operation.QUESTIONS, questionModels, questionTemperature, questionMaxTokens);
+        register(Operation.ADAPTIVE_QUESTION, adaptiveModels, adaptiveTemperature, adaptiveMaxTokens);
+        register(Operation.SCORING, scoringModels, scoringTemperature, scoringMaxTokens);
+    }
+
+    private void register(Operation operation, List<String> models, double temperature, int maxTokens) {
+        List<Route> routes = new ArrayList<>();
+        for (String model : models) {
+            String name = model.trim();
+            if (!name.isEmpty() && routes.stream().noneMatch(r -> r.model().equals(name))) {
+                Route route = new Route(operation, name, temperature, maxTokens);
+                routes.add(route);
+                stats.put(route, new ModelStats());
+            }
+        }
+        if (routes.isEmpty()) {
+            throw new IllegalStateException("No Groq models configured for " + operation.tag());
+        }
+        candidates.put(operation, List.copyOf(routes));
+        log.info("Groq {} requests route to {}", operation.tag(), routes.stream().map(Route::model).toList());
+    }
+
+    /**
+     * Candidates for {@code operation} in the order they should be tried.
+     */
+    public List<Route> routes(Operation operation) {
+        List<Route> configured = candidates.get(operation);
+        if (configured.size() == 1) {
+            return configured;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Route> healthy = new ArrayList<>();
+        List<Route> unhealthy = new ArrayList<>();
+        for (Route route : configured) {
+            (stats.get(route).isHealthy(now) ? healthy : unhealthy).add(route);
+        }
+
+        List<Route> ordered = new ArrayList<>(configured.size());
+        while (!healthy.isEmpty()) {
+            Route next = preferred(healthy);
+            healthy.remove(next);
+            ordered.add(next);
+        }
+        ordered.addAll(unhealthy);
+        return ordered;
+    }
+
+    private Route preferred(List<Route> healthy) {
+        double fastest = Double.MAX_VALUE;
+        for (Route route : healthy) {
+            fastest = Math.min(fastest, stats.get(route).latencyMillis);
+        }
+        // A model with no samples yet reports 0 ms, so it gets tried once and measured
+        for (Route route : healthy) {
+            if (stats.get(route).latencyMillis <= fastest * (1 + latencyTolerance)) {
+                return route;
+            }
+        }
+        return healthy.get(0);
+    }
+
+    public void recordSuccess(Route route, long nanos) {
+        stats.get(route).record(nanos, false, System.currentTimeMillis());
+        timer(route, "success").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFailure(Route route, long nanos) {
+        ModelStats modelStats = stats.get(route);
+        modelStats.record(nanos, true, System.currentTimeMillis());
+        timer(route, "error").record(nanos, TimeUnit.NANOSECONDS);
+        if (!modelStats.isHealthy(System.currentTimeMillis())) {
+            log.warn("Groq model {} marked unhealthy for {} requests (error rate {})",
+                    route.model(), route.operation().tag(), String.format("%.2f", modelStats.errorRate));
+        }
+    }
+
+    private Timer timer(Route route, String outcome) {
+        return Timer.builder("groq.requests")
+                .description("Groq chat completion latency by operation and model")
+                .tag("operation", route.operation().tag())
+                .tag("model", route.model())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private final class ModelStats {
+
+        private volatile double latencyMillis;
+        private double errorRate;
+        private long unhealthyUntil;
+
+        synchronized void record(long nanos, boolean failed, long now) {
+            double millis = nanos / 1_000_000.0;
+            if (!failed) {
+                latencyMillis = latencyMillis == 0 ? millis : latencyMillis + ALPHA * (millis - latencyMillis);
+            }
+            errorRate += ALPHA * ((failed ? 1 : 0) - errorRate);
+            if (failed && errorRate > maxErrorRate) {
+                unhealthyUntil = now + cooldownMillis;
+            }
+        }
+
+        // Once the cooldown has passed the model is tried again; another failure while the
+        // error rate is still high puts it straight back into cooldown.
+        synchronized boolean isHealthy(long now) {
+            return now >= unhealthyUntil;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.app.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Hedging for idempotent upstream calls: if the first attempt has not answered by the
+ * observed p95 (configurable) of recent attempts with the same key, a second identical
+ * attempt is started and whichever succeeds first wins; the other is cancelled
+ * (interrupted). Hedges draw from a token bucket refilled by a fixed share of primary
+ * calls, which caps the extra load at {@code hedging.budget-percent}. A loser still
+ * running when it is cancelled adds its elapsed time to the window as a lower bound, so
+ * the slow attempts that hedging hides keep counting towards the threshold.
+ */
+@Component
+public class HedgedRequests {
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * The winning attempt's result and how long that attempt alone took.
+     */
+    public record Outcome<T>(T value, long attemptNanos) {
+    }
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int minSamples;
+    private final long minDelayMillis;
+    private final double budgetPerCall;
+    private final double maxBudget;
+    private final int windowSize;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Map<Object, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    private double budget;
+
+    public HedgedRequests(MeterRegistry meterRegistry,
+                          @Value("${hedging.enabled:true}") boolean enabled,
+                          @Value("${hedging.percentile:0.95}") double percentile,
+                          @Value("${hedging.min-samples:20}") int minSamples,
+                          @Value("${hedging.min-delay-ms:50}") long minDelayMillis,
+                          @Value("${hedging.budget-percent:5}") double budgetPercent,
+                          @Value("${hedging.window-size:200}") int windowSize,
+                          @Value("${hedging.max-threads:32}") int maxThreads) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.minDelayMillis = minDelayMillis;
+        this.budgetPerCall = budgetPercent / 100.0;
+        this.maxBudget = Math.max(1, budgetPercent / 10.0);
+        this.windowSize = windowSize;
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("hedge-"));
+    }
+
+    /**
+     * Runs {@code call}, hedging it once if it is slow. {@code key} groups calls whose
+     * latencies are comparable (same operation and model); {@code operation} tags metrics.
+     */
+    public <T> T execute(Object key, String operation, Call<T> call) throws IOException {
+        return executeTimed(key, operation, call).value();
+    }
+
+    /**
+     * Like {@link #execute}, but also reports the winning attempt's own latency, which
+     * excludes the wait before a hedge was fired.
+     */
+    public <T> Outcome<T> executeTimed(Object key, String operation, Call<T> call) throws IOException {
+        if (!enabled) {
+            return direct(call);
+        }
+        LatencyWindow window = windows.computeIfAbsent(key, k -> new LatencyWindow(windowSize));
+        RequestDeadline deadline = RequestDeadline.current();
+        long start = System.nanoTime();
+        addBudget();
+
+        CompletionService<Outcome<T>> completion = new ExecutorCompletionService<>(executor);
+        Future<Outcome<T>> primary;
+        try {
+            primary = completion.submit(timed(call, window, operation, deadline));
+        } catch (RejectedExecutionException e) {
+            return direct(call);
+        }
+
+        Future<Outcome<T>> hedge = null;
+        long hedgeStart = 0;
+        try {
+            long delayMillis = window.quantileMillis(percentile, minSamples);
+            Future<Outcome<T>> done = delayMillis < 0 ? null
+                    : completion.poll(Math.max(delayMillis, minDelayMillis), TimeUnit.MILLISECONDS);
+            if (done == null && delayMillis >= 0) {
+                if (tryTakeBudget()) {
+                    try {
+                        hedgeStart = System.nanoTime();
+                        hedge = completion.submit(timed(call, window, operation, deadline));
+                        counter(operation, "fired").increment();
+                    } catch (RejectedExecutionException e) {
+                        counter(operation, "rejected").increment();
+                    }
+                } else {
+                    counter(operation, "over_budget").increment();
+                }
+            }
+            if (done == null) {
+                done = completion.take();
+            }
+
+            Outcome<T> result;
+            try {
+                result = done.get();
+            } catch (ExecutionException first) {
+                if (hedge == null) {
+                    throw first;
+                }
+                // One attempt failed; the other one may still succeed
+                done = completion.take();
+                result = done.get();
+            }
+            if (hedge != null && done == hedge) {
+                counter(operation, "won").increment();
+            }
+            return result;
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + operation);
+        } finally {
+            cancelLoser(primary, start, window);
+            if (hedge != null) {
+                cancelLoser(hedge, hedgeStart, window);
+            }
+            latencyTimer(operation, "end_to_end").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static <T> Outcome<T> direct(Call<T> call) throws IOException {
+        long start = System.nanoTime();
+        T value = call.call();
+        return new Outcome<>(value, System.nanoTime() - start);
+    }
+
+    private static void cancelLoser(Future<?> attempt, long startNanos, LatencyWindow window) {
+        // It would have taken at least this long; leaving it out would drag the quantile down
+        if (!attempt.isDone() && attempt.cancel(true)) {
+            window.add((System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    private <T> Callable<Outcome<T>> timed(Call<T> call, LatencyWindow window, String operation,
+                                           RequestDeadline deadline) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                T result = RequestDeadline.callWith(deadline, call::call);
+                long nanos = System.nanoTime() - start;
+                window.add(nanos / 1_000_000);
+                return new Outcome<>(result, nanos);
+            } finally {
+                latencyTimer(operation, "attempt").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private synchronized void addBudget() {
+        budget = Math.min(maxBudget, budget + budgetPerCall);
+    }
+
+    private synchronized boolean tryTakeBudget() {
+        if (budget >= 1) {
+            budget -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private Counter counter(String operation, String outcome) {
+        return Counter.builder("hedging.requests")
+                .description("Hedged upstream requests by outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Timer latencyTimer(String operation, String kind) {
+        // kind=end_to_end is what callers saw; kind=attempt is single-attempt latency, i.e.
+        // roughly what they would have seen without hedging (cancelled losers only count the
+        // time they ran, so it understates the tail). The gap between their p99s is the gain.
+        return Timer.builder("hedging.latency")
+                .description("Latency of hedged calls with and without the hedge")
+                .tag("operation", operation)
+                .tag("kind", kind)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static IOException rethrow(Throwable cause) {
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException(cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Latencies of the most recent attempts, in milliseconds.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void add(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * The given quantile of recent latencies, or -1 while there are too few samples.
+         */
+        synchronized long quantileMillis(double quantile, int minSamples) {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(quantile * count) - 1)];
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.app.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * {@code Idempotency-Key} support for expensive endpoints. The first request with a key
+ * runs the operation; a duplicate that arrives while it runs waits for the same result,
+ * and a later one gets the stored result without re-running it. Keys are scoped to the
+ * principal and the operation, and a key reused with a different request body is
+ * rejected with 422. Failures are not stored, nor are results the caller marks as not
+ * storable (degraded fallbacks), so a retry after either runs again. A duplicate waits
+ * for the original at most until its own deadline, capped at
+ * {@code interview.idempotency.max-wait-ms}. Entries live in a bounded in-memory LRU and
+ * expire after {@code interview.idempotency.ttl-seconds}.
+ */
+@Service
+public class IdempotencyService {
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    private record StoreKey(String principal, String operation, String key) {
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long ttlMillis;
+    private final int maxKeyLength;
+    private final Duration maxWait;
+    private final Map<StoreKey, Entry> entries;
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${interview.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${interview.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${interview.idempotency.max-key-length:255}") int maxKeyLength,
+                              @Value("${interview.idempotency.max-wait-ms:60000}") long maxWaitMillis) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxKeyLength = maxKeyLength;
+        this.maxWait = Duration.ofMillis(maxWaitMillis);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StoreKey, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Runs {@code operation} at most once per (principal, operation name, key). Without a
+     * key the operation simply runs.
+     */
+    public <T> Result<T> execute(String principal, String operationName, String key, byte[] fingerprint,
+                                 Supplier<T> operation) {
+        return execute(principal, operationName, key, fingerprint, operation, value -> true);
+    }
+
+    /**
+     * As above, but a result for which {@code storable} is false is handed only to
+     * duplicates already waiting on it; the key is released so a retry runs again.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String principal, String operationName, String key, byte[] fingerprint,
+                                 Supplier<T> operation, Predicate<? super T> storable) {
+        if (key == null || key.isBlank()) {
+            return new Result<>(operation.get(), false);
+        }
+        if (key.length() > maxKeyLength) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be at most " + maxKeyLength + " characters");
+        }
+        StoreKey storeKey = new StoreKey(principal, operationName, key);
+        Entry created = new Entry(fingerprint);
+        Entry existing;
+        synchronized (entries) {
+            existing = entries.get(storeKey);
+            if (existing != null && existing.expiresAt < System.currentTimeMillis()) {
+                entries.remove(storeKey);
+                existing = null;
+            }
+            if (existing == null) {
+                entries.put(storeKey, created);
+            }
+        }
+
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.fingerprint, fingerprint)) {
+                counter(operationName, "mismatch").increment();
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request");
+            }
+            counter(operationName, existing.result.isDone() ? "replayed" : "joined").increment();
+            return new Result<>((T) await(existing), true);
+        }
+
+        counter(operationName, "executed").increment();
+        try {
+            T value = operation.get();
+            if (storable.test(value)) {
+                created.expiresAt = System.currentTimeMillis() + ttlMillis;
+            } else {
+                entries.remove(storeKey, created);
+                counter(operationName, "not_stored").increment();
+            }
+            created.result.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            // Let the client retry: waiting duplicates see the failure, later ones run again
+            entries.remove(storeKey, created);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(Entry entry) {
+        try {
+            Duration wait = RequestDeadline.budget("idempotency", maxWait);
+            return entry.result.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline != null && deadline.isExpired()) {
+                throw deadline.exceeded("idempotency");
+            }
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Timed out waiting for the original request");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Original request failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Interrupted while waiting for the original request");
+        }
+    }
+
+    /**
+     * SHA-256 over the request parts: byte arrays and strings as-is (so large audio is not
+     * re-encoded), anything else as JSON.
+     */
+    public byte[] fingerprint(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                byte[] bytes;
+                if (part == null) {
+                    bytes = new byte[0];
+                } else if (part instanceof byte[] raw) {
+                    bytes = raw;
+                } else if (part instanceof String text) {
+                    bytes = text.getBytes(StandardCharsets.UTF_8);
+                } else {
+                    bytes = objectMapper.writeValueAsBytes(part);
+                }
+                // Length prefix keeps ("ab", "c") and ("a", "bc") apart
+                digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+                digest.update(bytes);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private Counter counter(String operation, String outcome) {
+        return Counter.builder("idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,230 @@
+package com.app.demo.service;
+
+import com.app.demo.model.InterviewAnswer;
+import com.app.demo.model.SkillRollup;
+import com.app.demo.model.dto.AnalyticsSummary;
+import com.app.demo.model.dto.SkillStats;
+import com.app.demo.model.dto.SkillTrend;
+import com.app.demo.repository.SkillRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Interview analytics served from {@link SkillRollup} rows. The rollups are maintained
+ * incrementally by {@link InterviewSessionWriter}, which adds each flushed batch of
+ * answers to them in the same transaction, so reads cost O(skills × days) regardless
+ * of how many answers exist. The stateless adaptive-question endpoint contributes the
+ * latest proficiency per skill.
+ */
+@Service
+public class InterviewAnalyticsService {
+
+    private static final String[] SCORE_BUCKETS = {"0-2", "3-4", "5-6", "7-8", "9-10"};
+
+    // Rows are upserted in this order so two instances flushing overlapping keys cannot deadlock
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::userEmail)
+            .thenComparing(RollupKey::skill)
+            .thenComparing(RollupKey::day);
+
+    private final SkillRollupRepository rollupRepository;
+    private final int maxDays;
+
+    private record RollupKey(String userEmail, String skill, LocalDate day) {
+    }
+
+    public InterviewAnalyticsService(SkillRollupRepository rollupRepository,
+                                     @Value("${analytics.max-days:366}") int maxDays) {
+        this.rollupRepository = rollupRepository;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Adds answers to their rollups. Must run inside the transaction that saves them.
+     */
+    void addToRollups(List<InterviewSessionWriter.PendingAnswer> answers) {
+        if (answers.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, Counts> deltas = new TreeMap<>(KEY_ORDER);
+        for (InterviewSessionWriter.PendingAnswer pending : answers) {
+            InterviewAnswer answer = pending.answer();
+            LocalDate day = LocalDate.ofInstant(answer.getAnsweredAt(), ZoneOffset.UTC);
+            deltas.computeIfAbsent(new RollupKey(pending.userEmail(), normalize(pending.skill()), day),
+                    k -> new Counts()).add(answer, pending.proficiency());
+        }
+        Instant now = Instant.now();
+        deltas.forEach((key, d) -> rollupRepository.addToRollup(UUID.randomUUID(), key.userEmail(), key.skill(),
+                key.day(), d.answers, d.scoreSum, d.histogram[0], d.histogram[1], d.histogram[2], d.histogram[3],
+                d.histogram[4], d.beginner, d.intermediate, d.advanced, d.proficiency, now));
+    }
+
+    /**
+     * Records the proficiency the stateless adaptive-question endpoint assessed for a skill.
+     * Only the proficiency is rolled up: the scores in that request are supplied by the
+     * client, so answers are still counted from session interviews alone.
+     */
+    @Transactional
+    public void recordProficiency(String userEmail, String skill, String proficiency) {
+        if (skill == null || skill.isBlank() || proficiency == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        rollupRepository.addToRollup(UUID.randomUUID(), userEmail, normalize(skill),
+                LocalDate.ofInstant(now, ZoneOffset.UTC), 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, proficiency, now);
+    }
+
+    @Transactional(readOnly = true)
+    public AnalyticsSummary summary(String userEmail, int days) {
+        LocalDate to = today();
+        LocalDate from = from(to, days);
+        Counts overall = new Counts();
+        Map<String, Counts> bySkill = new TreeMap<>();
+        for (SkillRollup row : rollupRepository.findByUserEmailAndDayBetween(userEmail, from, to)) {
+            overall.add(row);
+            bySkill.computeIfAbsent(row.getSkill(), s -> new Counts()).add(row);
+        }
+        List<SkillStats> skills = new ArrayList<>(bySkill.size());
+        bySkill.forEach((skill, counts) -> skills.add(counts.toStats(skill)));
+        return new AnalyticsSummary(from, to, overall.toStats(null), skills);
+    }
+
+    @Transactional(readOnly = true)
+    public SkillTrend skillTrend(String userEmail, String skill, int days) {
+        LocalDate to = today();
+        LocalDate from = from(to, days);
+        String normalized = normalize(skill);
+        List<SkillTrend.DailyStats> daily = new ArrayList<>();
+        for (SkillRollup row : rollupRepository.findByUserEmailAndSkillAndDayBetweenOrderByDay(
+                userEmail, normalized, from, to)) {
+            Counts counts = new Counts();
+            counts.add(row);
+            daily.add(new SkillTrend.DailyStats(row.getDay(), counts.toStats(normalized)));
+        }
+        return new SkillTrend(normalized, from, to, daily);
+    }
+
+    /**
+     * Per-skill totals across all users.
+     */
+    @Transactional(readOnly = true)
+    public List<SkillStats> skillsOverview(int days) {
+        LocalDate to = today();
+        List<SkillStats> skills = new ArrayList<>();
+        for (SkillRollupRepository.SkillTotals totals : rollupRepository.totalsBySkill(from(to, days), to)) {
+            Counts counts = new Counts();
+            counts.add(totals);
+            skills.add(counts.toStats(totals.getSkill()));
+        }
+        return skills;
+    }
+
+    private LocalDate from(LocalDate to, int days) {
+        if (days < 1 || days > maxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be between 1 and " + maxDays);
+        }
+        return to.minusDays(days - 1L);
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private static String normalize(String skill) {
+        return skill.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int bucket(int score) {
+        if (score <= 2) {
+            return 0;
+        }
+        return Math.min(SCORE_BUCKETS.length - 1, (score - 1) / 2);
+    }
+
+    private static final class Counts {
+
+        private long answers;
+        private long scoreSum;
+        private final long[] histogram = new long[SCORE_BUCKETS.length];
+        private long beginner;
+        private long intermediate;
+        private long advanced;
+        private String proficiency;
+        private LocalDate proficiencyDay;
+
+        void add(InterviewAnswer answer, String sessionProficiency) {
+            answers++;
+            scoreSum += answer.getScore();
+            histogram[bucket(answer.getScore())]++;
+            String difficulty = answer.getDifficulty() == null ? "" : answer.getDifficulty().toLowerCase(Locale.ROOT);
+            switch (difficulty) {
+                case "beginner" -> beginner++;
+                case "intermediate" -> intermediate++;
+                case "advanced" -> advanced++;
+                default -> {
+                }
+            }
+            if (sessionProficiency != null) {
+                proficiency = sessionProficiency;
+            }
+        }
+
+        void add(SkillRollup row) {
+            answers += row.getAnswers();
+            scoreSum += row.getScoreSum();
+            histogram[0] += row.getScores0To2();
+            histogram[1] += row.getScores3To4();
+            histogram[2] += row.getScores5To6();
+            histogram[3] += row.getScores7To8();
+            histogram[4] += row.getScores9To10();
+            beginner += row.getBeginnerAnswers();
+            intermediate += row.getIntermediateAnswers();
+            advanced += row.getAdvancedAnswers();
+            if (row.getLastProficiency() != null
+                    && (proficiencyDay == null || row.getDay().isAfter(proficiencyDay))) {
+                proficiency = row.getLastProficiency();
+                proficiencyDay = row.getDay();
+            }
+        }
+
+        void add(SkillRollupRepository.SkillTotals totals) {
+            answers += totals.getAnswers();
+            scoreSum += totals.getScoreSum();
+            histogram[0] += totals.getScores0To2();
+            histogram[1] += totals.getScores3To4();
+            histogram[2] += totals.getScores5To6();
+            histogram[3] += totals.getScores7To8();
+            histogram[4] += totals.getScores9To10();
+            beginner += totals.getBeginnerAnswers();
+            intermediate += totals.getIntermediateAnswers();
+            advanced += totals.getAdvancedAnswers();
+        }
+
+        SkillStats toStats(String skill) {
+            Map<String, Long> scores = new LinkedHashMap<>();
+            for (int i = 0; i < SCORE_BUCKETS.length; i++) {
+                scores.put(SCORE_BUCKETS[i], histogram[i]);
+            }
+            Map<String, Long> difficulties = new LinkedHashMap<>();
+            difficulties.put("beginner", beginner);
+            difficulties.put("intermediate", intermediate);
+            difficulties.put("advanced", advanced);
+            Double average = answers == 0 ? null : Math.round(scoreSum * 100.0 / answers) / 100.0;
+            return new SkillStats(skill, answers, average, scores, difficulties, proficiency);
+        }
+    }
+}
@@ -1,87 +1,201 @@
 package com.app.demo.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.app.demo.audio.PreprocessedAudio;
+import com.app.demo.audio.WavReader;
+import com.app.demo.model.dto.AdaptiveQuestionResponse;
+import com.app.demo.model.dto.AnswerResult;
+import com.app.demo.model.dto.InterviewTokenResponse;
+import com.app.demo.model.dto.PreviousResult;
+import com.app.demo.model.dto.QuestionsResponse;
+import com.app.demo.model.groq.AnswerScore;
+import com.app.demo.model.groq.ChatCompletionRequest;
+import com.app.demo.model.groq.ChatCompletionResponse;
+import com.app.demo.model.groq.ChatMessage;
+import com.app.demo.model.groq.GeneratedQuestion;
+import com.app.demo.model.groq.GeneratedQuestions;
+import com.app.demo.model.groq.ResponseFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 
 @Service
 @Slf4j
 public class InterviewService {
 
+    private static final String QUESTIONS_SNAPSHOT_SECTION = "interview.questions";
+
+    private static final byte[] WARM_UP_COMPLETION = ("{\"choices\":[{\"message\":{\"role\":\"assistant\"," +
+            "\"content\":\"{\\\"score\\\": 7, \\\"feedback\\\": \\\"warm-up\\\"}\"},\"finish_reason\":\"stop\"}]}")
+            .getBytes(StandardCharsets.UTF_8);
+
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final ObjectReader chatResponseReader;
+    private final ObjectReader questionsReader;
+    private final ObjectWriter questionsWriter;
+    private final CacheSnapshotStore snapshotStore;
+    private final SharedCache sharedCache;
+    private final Map<String, CachedQuestions> questionCache;
+    private final long questionCacheTtlMillis;
+    private final LlmJsonParser llmJsonParser;
+    private final AudioPreprocessor audioPreprocessor;
     private final LiveKitTokenService liveKitTokenService;
     private final String wsUrl;
     private final String groqApiKey;
     private final String groqApiUrl;
-    private final String groqModel;
-    private final double groqTemperature;
-    private final int groqMaxTokens;
+    private final GroqModelRouter modelRouter;
+    private final HedgedRequests hedgedRequests;
+    private final MeterRegistry meterRegistry;
+    private final boolean groqJsonMode;
 
     public InterviewService(
             LiveKitTokenService liveKitTokenService,
+            RestTemplateBuilder restTemplateBuilder,
+            ObjectMapper objectMapper,
+            LlmJsonParser llmJsonParser,
+            AudioPreprocessor audioPreprocessor,
+            CacheSnapshotStore snapshotStore,
+            SharedCache sharedCache,
+            GroqModelRouter modelRouter,
+            HedgedRequests hedgedRequests,
+            MeterRegistry meterRegistry,
             @Value("${livekit.ws-url}") String wsUrl,
             @Value("${groq.api-key}") String groqApiKey,
             @Value("${groq.api-url}") String groqApiUrl,
-            @Value("${groq.model}") String groqModel,
-            @Value("${groq.temperature}") double groqTemperature,
-            @Value("${groq.max-tokens}") int groqMaxTokens) {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+            @Value("${groq.json-mode:true}") boolean groqJsonMode,
+            @Value("${interview.questions.cache-ttl-seconds:900}") long questionCacheTtlSeconds,
+            @Value("${interview.questions.cache-max-entries:500}") int questionCacheMaxEntries,
+            @Value("${groq.timeout-ms:60000}") long groqTimeoutMillis) {
+        this.restTemplate = DeadlineHttp.restTemplate(restTemplateBuilder, "groq",
+                Duration.ofMillis(groqTimeoutMillis));
+        this.chatResponseReader = objectMapper.readerFor(ChatCompletionResponse.class);
+        this.questionsReader = objectMapper.readerFor(QuestionsResponse.class);
+        this.questionsWriter = objectMapper.writerFor(QuestionsResponse.class);
+        this.snapshotStore = snapshotStore;
+        this.sharedCache = sharedCache;
+        this.questionCacheTtlMillis = questionCacheTtlSeconds * 1000;
+        this.questionCache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedQuestions> eldest) {
+                return size() > questionCacheMaxEntries;
+            }
+        });
+        snapshotStore.register(CacheSnapshotStore.Section.of(QUESTIONS_SNAPSHOT_SECTION, sink -> {
+            synchronized (questionCache) {
+                questionCache.forEach((skill, cached) -> {
+                    try {
+                        sink.accept(skill, cached.expiresAt(), questionsWriter.writeValueAsBytes(cached.questions()));
+                    } catch (IOException e) {
+                        log.warn("Skipping question set for '{}' in cache snapshot: {}", skill, e.getMessage());
+                    }
+                });
+            }
+        }));
+        sharedCache.onInvalidate(QUESTIONS_SNAPSHOT_SECTION, questionCache::remove);
+        this.llmJsonParser = llmJsonParser;
+        this.audioPreprocessor = audioPreprocessor;
         this.liveKitTokenService = liveKitTokenService;
         this.wsUrl = wsUrl;
         this.groqApiKey = groqApiKey;
         this.groqApiUrl = groqApiUrl;
-        this.groqModel = groqModel;
-        this.groqTemperature = groqTemperature;
-        this.groqMaxTokens = groqMaxTokens;
+        this.modelRouter = modelRouter;
+        this.hedgedRequests = hedgedRequests;
+        this.meterRegistry = meterRegistry;
+        this.groqJsonMode = groqJsonMode;
     }
 
     public String getWsUrl() {
         return wsUrl;
     }
 
-    public Map<String, Object> getToken(String studentProfileId, String interviewDisplayId, String language) {
+    public InterviewTokenResponse getToken(String studentProfileId, String interviewDisplayId, String language) {
         String participantToken = liveKitTokenService.generateToken(
                 interviewDisplayId, studentProfileId, studentProfileId, language, null);
-        Map<String, Object> result = new HashMap<>();
-        result.put("token", participantToken);
-        return result;
+        return new InterviewTokenResponse(participantToken, wsUrl);
     }
 
+    public AdaptiveQuestionResponse getAdaptiveQuestion(String skill, int questionNumber,
+                                                        List<PreviousResult> previousResults) {
+        double avgScore = averageScore(previousResults);
+        String difficulty = difficultyFor(avgScore);
+        String prompt = adaptivePrompt(skill, questionNumber, history(previousResults), difficulty, avgScore);
+
+        try {
+            GeneratedQuestion generated = chat(GroqModelRouter.Operation.ADAPTIVE_QUESTION, prompt,
+                    GeneratedQuestion.class, true);
+            return adaptiveResponse(generated, difficulty, avgScore);
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to generate adaptive question: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to generate adaptive question", e);
+        }
+    }
 
+    /**
+     * Generates question {@code questionNumber} at {@code difficulty} before the answer to
+     * {@code pendingQuestion} has been scored. Used by {@link QuestionSpeculator}; not hedged,
+     * since nobody is waiting on it yet.
+     */
+    GeneratedQuestion speculateAdaptiveQuestion(String skill, int questionNumber, List<PreviousResult> previousResults,
+                                                String pendingQuestion, String difficulty) throws IOException {
+        StringBuilder history = history(previousResults);
+        history.append("Q: ").append(pendingQuestion).append("\nScore: (being answered now)\n---\n");
+        // The pre-answer average only matches one of the bands being speculated, so leave it out
+        String prompt = adaptivePrompt(skill, questionNumber, history, difficulty, null);
+        return chat(GroqModelRouter.Operation.ADAPTIVE_QUESTION, prompt, GeneratedQuestion.class, false);
+    }
 
+    static AdaptiveQuestionResponse adaptiveResponse(GeneratedQuestion generated, String difficulty, double avgScore) {
+        String generatedDifficulty = generated.difficulty() != null ? generated.difficulty() : difficulty;
+        return new AdaptiveQuestionResponse(generated.question(), generatedDifficulty, difficulty, avgScore);
+    }
 
-    @SuppressWarnings("unchecked")
-    public Map<String, Object> getAdaptiveQuestion(String skill, int questionNumber,
-                                                    List<Map<String, Object>> previousResults) {
-        double avgScore = previousResults.stream()
-                .filter(r -> r.get("score") != null)
-                .mapToDouble(r -> ((Number) r.get("score")).doubleValue())
+    static double averageScore(List<PreviousResult> previousResults) {
+        return previousResults.stream()
+                .filter(r -> r.score() != null)
+                .mapToDouble(PreviousResult::score)
                 .average()
                 .orElse(5.0);
+    }
 
-        String difficulty = avgScore >= 7.5 ? "advanced" : avgScore >= 4.5 ? "intermediate" : "beginner";
+    static String difficultyFor(double avgScore) {
+        return avgScore >= 7.5 ? "advanced" : avgScore >= 4.5 ? "intermediate" : "beginner";
+    }
 
+    private static StringBuilder history(List<PreviousResult> previousResults) {
         StringBuilder history = new StringBuilder();
-        for (Map<String, Object> r : previousResults) {
-            history.append("Q: ").append(r.get("question"))
-                    .append("\nScore: ").append(r.get("score")).append("/10\n---\n");
+        for (PreviousResult r : previousResults) {
+            history.append("Q: ").append(r.question())
+                    .append("\nScore: ").append(r.score()).append("/10\n---\n");
         }
+        return history;
+    }
 
-        String prompt = String.format(
+    private static String adaptivePrompt(String skill, int questionNumber, StringBuilder history,
+                                         String difficulty, Double avgScore) {
+        String proficiency = avgScore != null
+                ? String.format("%s (avg score: %.1f/10)", difficulty, avgScore) : difficulty;
+        return String.format(
                 "You are conducting an adaptive technical interview for the skill: %s.\n\n" +
                 "Previous questions and scores:\n%s\n" +
-                "Current assessed proficiency: %s (avg score: %.1f/10). Question number: %d.\n\n" +
+                "Current assessed proficiency: %s. Question number: %d.\n\n" +
                 "Generate ONE interview question at %s difficulty level.\n" +
                 "- advanced: deep architecture, design patterns, edge cases, trade-offs.\n" +
                 "- intermediate: practical usage, common patterns, debugging scenarios.\n" +
@@ -91,48 +205,52 @@ public class InterviewService {
                 "{\"question\": \"<the question>\", \"difficulty\": \"%s\"}",
                 skill,
                 history.length() > 0 ? history.toString() : "None (first question)\n",
-                difficulty, avgScore, questionNumber, difficulty, difficulty);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(groqApiKey);
-
-        Map<String, Object> message = Map.of("role", "user", "content", prompt);
-        Map<String, Object> requestBody = Map.of(
-                "model", groqModel,
-                "messages", List.of(message),
-                "temperature", 0.7,
-                "max_tokens", 250);
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    groqApiUrl + "/chat/completions", HttpMethod.POST, entity, String.class);
-
-            JsonNode root = objectMapper.readTree(response.getBody());
-            String content = root.path("choices").get(0).path("message").path("content").asText();
-            content = content.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
-
-            JsonNode json = objectMapper.readTree(content);
-            Map<String, Object> result = new HashMap<>();
-            result.put("question", json.path("question").asText());
-            result.put("difficulty", json.path("difficulty").asText(difficulty));
-            result.put("proficiency", difficulty);
-            result.put("avgScore", avgScore);
-            return result;
-        } catch (Exception e) {
-            log.error("Failed to generate adaptive question: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to generate adaptive question", e);
-        }
+                proficiency, questionNumber, difficulty, difficulty);
     }
 
-    public Map<String, Object> evaluateAnswer(String question, byte[] audioBytes) {
+    /**
+     * Transcribes and scores an answer. If transcription or scoring failed, the result is
+     * marked {@link AnswerResult#degraded() degraded}.
+     */
+    public AnswerResult evaluateAnswer(String question, byte[] audioBytes) {
         String transcript = transcribeAudio(audioBytes);
+        if (transcript == null) {
+            AnswerResult scored = scoreAnswer(question, "");
+            return new AnswerResult("", scored.score(), scored.feedback(), true);
+        }
         return scoreAnswer(question, transcript);
     }
 
+    /**
+     * The transcript, or null if Whisper failed.
+     */
     private String transcribeAudio(byte[] audioBytes) {
+        PreprocessedAudio audio = audioPreprocessor.preprocess(audioBytes);
+        RequestDeadline.check("audio");
+        if (audio.hasSpeech()) {
+            return tryTranscribe(audio.data(), audio.filename());
+        }
+        // The VAD misses quiet or distant speech, and a skipped answer scores 0, so the
+        // untrimmed recording still goes to Whisper; the counter shows how often it disagrees
+        String transcript = tryTranscribe(audioBytes, WavReader.isWav(audioBytes) ? "audio.wav" : "audio.webm");
+        Counter.builder("interview.audio.vad.no_speech")
+                .description("Answers the VAD found no speech in, by what Whisper made of the original")
+                .tag("whisper", transcript == null ? "failed" : transcript.isBlank() ? "empty" : "text")
+                .register(meterRegistry)
+                .increment();
+        return transcript;
+    }
+
+    /**
+     * Uploads already-prepared audio to Whisper. Returns an empty transcript on failure,
+     * unless the request's deadline ran out.
+     */
+    public String transcribe(byte[] audioBytes, String filename) {
+        String transcript = tryTranscribe(audioBytes, filename);
+        return transcript != null ? transcript : "";
+    }
+
+    private String tryTranscribe(byte[] audioBytes, String filename) {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.MULTIPART_FORM_DATA);
@@ -141,7 +259,7 @@ public class InterviewService {
             ByteArrayResource audioResource = new ByteArrayResource(audioBytes) {
                 @Override
                 public String getFilename() {
-                    return "audio.webm";
+                    return filename;
                 }
             };
 
@@ -157,13 +275,15 @@ public class InterviewService {
                     HttpMethod.POST, entity, String.class);
 
             return response.getBody() != null ? response.getBody().trim() : "";
+        } catch (DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Transcription failed: {}", e.getMessage(), e);
-            return "";
+            return null;
         }
     }
 
-    private Map<String, Object> scoreAnswer(String question, String transcript) {
+    public AnswerResult scoreAnswer(String question, String transcript) {
         String answerText = transcript.isBlank() ? "(candidate did not provide an answer)" : transcript;
 
         String prompt = String.format(
@@ -178,46 +298,82 @@ public class InterviewService {
                 "{\"score\": <integer 0-10>, \"feedback\": \"<2-3 sentences of constructive feedback>\"}",
                 question, answerText);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(groqApiKey);
-
-        Map<String, Object> message = Map.of("role", "user", "content", prompt);
-        Map<String, Object> requestBody = Map.of(
-                "model", groqModel,
-                "messages", List.of(message),
-                "temperature", 0.3,
-                "max_tokens", 300);
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("transcript", transcript);
-
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    groqApiUrl + "/chat/completions",
-                    HttpMethod.POST, entity, String.class);
-
-            JsonNode root = objectMapper.readTree(response.getBody());
-            String content = root.path("choices").get(0).path("message").path("content").asText();
-
-            // Strip potential markdown code fences
-            content = content.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
-
-            JsonNode scoring = objectMapper.readTree(content);
-            result.put("score", scoring.path("score").asInt(0));
-            result.put("feedback", scoring.path("feedback").asText("No feedback available."));
+            AnswerScore scoring = chat(GroqModelRouter.Operation.SCORING, prompt, AnswerScore.class, false);
+            int score = scoring.score() != null ? scoring.score() : 0;
+            String feedback = scoring.feedback() != null ? scoring.feedback() : "No feedback available.";
+            return new AnswerResult(transcript, score, feedback);
+        } catch (DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Scoring failed: {}", e.getMessage(), e);
-            result.put("score", 0);
-            result.put("feedback", "Could not evaluate answer automatically.");
+            return new AnswerResult(transcript, 0, "Could not evaluate answer automatically.", true);
         }
+    }
 
-        return result;
+    /**
+     * Generated question sets are cached per skill for a short while (carried over
+     * restarts by {@link CacheSnapshotStore} and shared between instances by
+     * {@link SharedCache}), since every candidate picking the same skill would otherwise
+     * trigger an identical LLM call.
+     */
+    public QuestionsResponse getQuestions(String skill) {
+        String key = skill.trim().toLowerCase(Locale.ROOT);
+        QuestionsResponse cached = cachedQuestions(key);
+        if (cached != null) {
+            return cached;
+        }
+        QuestionsResponse generated = generateQuestions(skill);
+        if (questionCacheTtlMillis > 0 && !generated.questions().isEmpty()) {
+            long expiresAt = System.currentTimeMillis() + questionCacheTtlMillis;
+            questionCache.put(key, new CachedQuestions(generated, expiresAt));
+            if (sharedCache.isEnabled()) {
+                try {
+                    sharedCache.put(QUESTIONS_SNAPSHOT_SECTION, key, questionsWriter.writeValueAsBytes(generated), expiresAt);
+                } catch (IOException e) {
+                    log.warn("Could not share question set for '{}': {}", key, e.getMessage());
+                }
+            }
+        }
+        return generated;
     }
 
-    public Map<String, Object> getQuestions(String skill) {
+    private QuestionsResponse cachedQuestions(String key) {
+        if (questionCacheTtlMillis <= 0) {
+            return null;
+        }
+        CachedQuestions cached = questionCache.get(key);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            snapshotStore.recordHit(QUESTIONS_SNAPSHOT_SECTION);
+            sharedCache.recordLocalHit(QUESTIONS_SNAPSHOT_SECTION);
+            return cached.questions();
+        }
+        byte[] value;
+        long expiresAt;
+        CacheSnapshotStore.Entry restored = snapshotStore.restore(QUESTIONS_SNAPSHOT_SECTION, key);
+        if (restored != null) {
+            sharedCache.recordLocalHit(QUESTIONS_SNAPSHOT_SECTION);
+            value = restored.value();
+            expiresAt = restored.expiresAt();
+        } else {
+            SharedCache.Entry shared = sharedCache.get(QUESTIONS_SNAPSHOT_SECTION, key);
+            if (shared == null) {
+                return null;
+            }
+            value = shared.value();
+            expiresAt = shared.expiresAt();
+        }
+        try {
+            QuestionsResponse questions = questionsReader.readValue(value);
+            questionCache.put(key, new CachedQuestions(questions, expiresAt));
+            return questions;
+        } catch (IOException e) {
+            log.warn("Discarding unreadable cached question set for '{}': {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private QuestionsResponse generateQuestions(String skill) {
         try {
             String prompt = String.format(
                     "Generate 10 technical interview questions for the skill: %s. " +
@@ -225,39 +381,111 @@ public class InterviewService {
                     "No explanations, no markdown, just the JSON object. " +
                     "Example format: {\"questions\": [\"Question 1?\", \"Question 2?\"]}", skill);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(groqApiKey);
+            GeneratedQuestions generated = chat(GroqModelRouter.Operation.QUESTIONS, prompt, GeneratedQuestions.class, true);
+            List<String> questions = generated.questions() != null ? generated.questions() : List.of();
+            return new QuestionsResponse(questions);
 
-            Map<String, Object> message = Map.of("role", "user", "content", prompt);
-            Map<String, Object> requestBody = Map.of(
-                    "model", groqModel,
-                    "messages", List.of(message),
-                    "temperature", groqTemperature,
-                    "max_tokens", groqMaxTokens
-            );
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to generate questions via Groq: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to generate interview questions", e);
+        }
+    }
+
+    /**
+     * Sends a single-message chat completion to the model {@link GroqModelRouter} picks for
+     * {@code operation}, falling back to the next candidate if a model fails or returns
+     * output that cannot be parsed. Idempotent operations are hedged by {@link HedgedRequests}
+     * when {@code hedge} is set.
+     * The envelope is read straight from the response bytes; only the message content is
+     * materialised as a String before being handed to {@link LlmJsonParser}.
+     */
+    private <T> T chat(GroqModelRouter.Operation operation, String prompt, Class<T> type,
+                       boolean hedge) throws IOException {
+        List<GroqModelRouter.Route> routes = modelRouter.routes(operation);
+        RuntimeException lastRuntimeError = null;
+        IOException lastIoError = null;
+        for (GroqModelRouter.Route route : routes) {
+            long start = System.nanoTime();
+            try {
+                if (hedge && operation.idempotent()) {
+                    // The router ranks models by their own latency, not by how long hedging waited
+                    HedgedRequests.Outcome<T> outcome = hedgedRequests.executeTimed(route, operation.tag(),
+                            () -> chat(route, prompt, type));
+                    modelRouter.recordSuccess(route, outcome.attemptNanos());
+                    return outcome.value();
+                }
+                T result = chat(route, prompt, type);
+                modelRouter.recordSuccess(route, System.nanoTime() - start);
+                return result;
+            } catch (IOException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e; // cancelled by the caller, not the model's fault
+                }
+                modelRouter.recordFailure(route, System.nanoTime() - start);
+                lastIoError = e;
+            } catch (DeadlineExceededException e) {
+                throw e; // out of time, not the model's fault; no point trying the next one
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                modelRouter.recordFailure(route, System.nanoTime() - start);
+                lastRuntimeError = e;
+            }
+            log.warn("Groq {} request to {} failed", operation.tag(), route.model());
+        }
+        if (lastIoError != null && lastRuntimeError == null) {
+            throw lastIoError;
+        }
+        throw lastRuntimeError;
+    }
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+    private <T> T chat(GroqModelRouter.Route route, String prompt, Class<T> type) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(groqApiKey);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    groqApiUrl + "/chat/completions",
-                    HttpMethod.POST, entity, String.class);
+        ChatCompletionRequest requestBody = new ChatCompletionRequest(
+                route.model(),
+                List.of(ChatMessage.user(prompt)),
+                route.temperature(),
+                route.maxTokens(),
+                groqJsonMode ? ResponseFormat.JSON_OBJECT : null);
 
-            JsonNode root = objectMapper.readTree(response.getBody());
-            String content = root.path("choices").get(0).path("message").path("content").asText();
+        HttpEntity<ChatCompletionRequest> entity = new HttpEntity<>(requestBody, headers);
 
-            // Parse the JSON from Groq's response
-            JsonNode questionsJson = objectMapper.readTree(content);
-            List<String> questions = new ArrayList<>();
-            for (JsonNode q : questionsJson.path("questions")) {
-                questions.add(q.asText());
-            }
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                groqApiUrl + "/chat/completions", HttpMethod.POST, entity, byte[].class);
 
-            return Map.of("questions", questions);
+        byte[] body = response.getBody();
+        if (body == null) {
+            throw new IOException("Empty response from Groq");
+        }
+        ChatCompletionResponse completion = chatResponseReader.readValue(body);
+        return llmJsonParser.parse(completion.firstContent(), type);
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to generate questions via Groq: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to generate interview questions", e);
+    /**
+     * Opens a pooled connection to Groq (an authenticated GET of the model list) and runs
+     * the completion parsing path on a canned response, so the first real request finds
+     * neither cold.
+     */
+    public void warmUp(int iterations) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(groqApiKey);
+        try {
+            restTemplate.exchange(groqApiUrl + "/models", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        } catch (RestClientException e) {
+            log.debug("Groq warm-up request failed: {}", e.getMessage());
+        }
+        for (int i = 0; i < iterations; i++) {
+            ChatCompletionResponse completion = chatResponseReader.readValue(WARM_UP_COMPLETION);
+            llmJsonParser.parse(completion.firstContent(), AnswerScore.class);
         }
     }
+
+    private record CachedQuestions(QuestionsResponse questions, long expiresAt) {
+    }
 }
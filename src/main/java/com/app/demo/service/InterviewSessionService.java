@@ -0,0 +1,202 @@
+package com.app.demo.service;
+
+import com.app.demo.model.InterviewAnswer;
+import com.app.demo.model.InterviewSession;
+import com.app.demo.model.dto.AdaptiveQuestionResponse;
+import com.app.demo.model.dto.AnswerResult;
+import com.app.demo.model.dto.InterviewSessionView;
+import com.app.demo.model.dto.PreviousResult;
+import com.app.demo.model.dto.SessionQuestionResponse;
+import com.app.demo.repository.InterviewAnswerRepository;
+import com.app.demo.repository.InterviewSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Server-side interview state. Hot sessions live in memory; the database copy is
+ * kept up to date by {@link InterviewSessionWriter} and is only read when a candidate
+ * reconnects to a session that has been evicted or belongs to a previous instance.
+ */
+@Service
+@Slf4j
+public class InterviewSessionService {
+
+    private final InterviewService interviewService;
+    private final InterviewSessionRepository sessionRepository;
+    private final InterviewAnswerRepository answerRepository;
+    private final InterviewSessionWriter writer;
+    private final QuestionSpeculator questionSpeculator;
+    private final long idleEvictionMillis;
+
+    private final Map<UUID, ActiveInterviewSession> hotSessions = new ConcurrentHashMap<>();
+
+    public InterviewSessionService(InterviewService interviewService,
+                                   InterviewSessionRepository sessionRepository,
+                                   InterviewAnswerRepository answerRepository,
+                                   InterviewSessionWriter writer,
+                                   QuestionSpeculator questionSpeculator,
+                                   @Value("${interview.sessions.idle-eviction-ms:1800000}") long idleEvictionMillis) {
+        this.interviewService = interviewService;
+        this.sessionRepository = sessionRepository;
+        this.answerRepository = answerRepository;
+        this.writer = writer;
+        this.questionSpeculator = questionSpeculator;
+        this.idleEvictionMillis = idleEvictionMillis;
+    }
+
+    public InterviewSessionView create(String userEmail, String skill) {
+        Instant now = Instant.now();
+        InterviewSession session = sessionRepository.save(InterviewSession.builder()
+                .userEmail(userEmail)
+                .skill(skill)
+                .status(InterviewSession.Status.ACTIVE)
+                .questionNumber(0)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        ActiveInterviewSession active = new ActiveInterviewSession(session, List.of());
+        hotSessions.put(active.id(), active);
+        return active.view();
+    }
+
+    public InterviewSessionView get(String userEmail, UUID sessionId) {
+        return load(userEmail, sessionId).view();
+    }
+
+    public SessionQuestionResponse nextQuestion(String userEmail, UUID sessionId) {
+        return withSession(userEmail, sessionId, session -> {
+            int number = session.questionNumber() + 1;
+            List<PreviousResult> previousResults = session.previousResults();
+            AdaptiveQuestionResponse question = questionSpeculator.claim(session.id(), number, previousResults)
+                    .orElseGet(() -> interviewService.getAdaptiveQuestion(session.skill(), number, previousResults));
+            session.askQuestion(question.question(), question.difficulty(), question.proficiency());
+            writer.markDirty(session);
+            questionSpeculator.speculate(session.id(), session.skill(), number, previousResults, question.question());
+            return new SessionQuestionResponse(session.id(), session.questionNumber(), question.question(),
+                    question.difficulty(), question.proficiency(), question.avgScore());
+        });
+    }
+
+    public AnswerResult submitAnswer(String userEmail, UUID sessionId, byte[] audioBytes) {
+        return withSession(userEmail, sessionId, session -> {
+            String question = requireCurrentQuestion(session);
+            AnswerResult result = interviewService.evaluateAnswer(question, audioBytes);
+            recordAnswer(session, question, result);
+            return result;
+        });
+    }
+
+    public InterviewSessionView complete(String userEmail, UUID sessionId) {
+        return withSession(userEmail, sessionId, session -> {
+            session.complete();
+            writer.markDirty(session);
+            questionSpeculator.discard(session.id());
+            return session.view();
+        });
+    }
+
+    /**
+     * Returns the session's open question for an answer that is about to be streamed.
+     */
+    public String openQuestion(String userEmail, UUID sessionId) {
+        ActiveInterviewSession session = load(userEmail, sessionId);
+        if (!session.isActive()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Interview session is already completed");
+        }
+        return requireCurrentQuestion(session);
+    }
+
+    public void recordStreamedAnswer(String userEmail, UUID sessionId, String question, AnswerResult result) {
+        withSession(userEmail, sessionId, session -> {
+            if (!question.equals(session.currentQuestion())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Question changed while answering");
+            }
+            recordAnswer(session, question, result);
+            return null;
+        });
+    }
+
+    void recordAnswer(ActiveInterviewSession session, String question, AnswerResult result) {
+        InterviewAnswer answer = InterviewAnswer.builder()
+                .sessionId(session.id())
+                .questionNumber(session.questionNumber())
+                .question(question)
+                .difficulty(session.currentDifficulty())
+                .transcript(result.transcript())
+                .score(result.score())
+                .feedback(result.feedback())
+                .answeredAt(Instant.now())
+                .build();
+        session.recordAnswer(answer);
+        writer.enqueueAnswer(session, answer);
+    }
+
+    static String requireCurrentQuestion(ActiveInterviewSession session) {
+        String question = session.currentQuestion();
+        if (question == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "No open question in this session");
+        }
+        return question;
+    }
+
+    <T> T withSession(String userEmail, UUID sessionId, Function<ActiveInterviewSession, T> action) {
+        ActiveInterviewSession session = load(userEmail, sessionId);
+        if (!session.isActive()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Interview session is already completed");
+        }
+        if (!session.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Interview session is busy");
+        }
+        try {
+            return action.apply(session);
+        } finally {
+            session.release();
+        }
+    }
+
+    ActiveInterviewSession load(String userEmail, UUID sessionId) {
+        // Touched inside compute so evictIdleSessions, which decides per key under the same
+        // lock, cannot drop a session between this lookup and its use
+        ActiveInterviewSession session = hotSessions.compute(sessionId, (id, hot) -> {
+            ActiveInterviewSession loaded = hot != null ? hot : sessionRepository.findById(id)
+                    .map(s -> new ActiveInterviewSession(s, answerRepository.findBySessionIdOrderByQuestionNumber(id)))
+                    .orElse(null);
+            if (loaded != null) {
+                loaded.touch();
+            }
+            return loaded;
+        });
+        if (session == null || !session.userEmail().equals(userEmail)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Interview session not found");
+        }
+        return session;
+    }
+
+    @Scheduled(fixedDelayString = "${interview.sessions.eviction-interval-ms:60000}")
+    public void evictIdleSessions() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        for (UUID id : hotSessions.keySet()) {
+            boolean[] evicted = new boolean[1];
+            hotSessions.computeIfPresent(id, (key, session) -> {
+                evicted[0] = session.lastAccessMillis() < cutoff
+                        && !session.isBusy()
+                        && !writer.isDirty(key);
+                return evicted[0] ? null : session;
+            });
+            if (evicted[0]) {
+                questionSpeculator.discard(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.app.demo.service;
+
+import com.app.demo.config.LifecyclePhases;
+import com.app.demo.model.InterviewAnswer;
+import com.app.demo.model.InterviewSession;
+import com.app.demo.repository.InterviewAnswerRepository;
+import com.app.demo.repository.InterviewSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind persistence for interview sessions. Answers and session state changes
+ * are queued in memory and written in batched transactions on a fixed delay, and once
+ * more when the context stops — after the web server has stopped taking requests, so
+ * nothing accepted before shutdown is lost. Each batch of answers is added to the
+ * analytics rollups in the same transaction, so a retried batch is never counted twice.
+ * A session counts as dirty, and so is not evicted, until its state and every answer
+ * queued for it have been committed.
+ */
+@Component
+@Slf4j
+public class InterviewSessionWriter implements SmartLifecycle {
+
+    private final InterviewSessionRepository sessionRepository;
+    private final InterviewAnswerRepository answerRepository;
+    private final InterviewAnalyticsService analyticsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final Queue<PendingAnswer> pendingAnswers = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, ActiveInterviewSession> dirtySessions = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> unsavedAnswers = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean running;
+
+    public InterviewSessionWriter(InterviewSessionRepository sessionRepository,
+                                  InterviewAnswerRepository answerRepository,
+                                  InterviewAnalyticsService analyticsService,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${interview.sessions.flush-batch-size:50}") int batchSize) {
+        this.sessionRepository = sessionRepository;
+        this.answerRepository = answerRepository;
+        this.analyticsService = analyticsService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * An answer waiting to be written, with the session details its rollup is keyed by.
+     */
+    record PendingAnswer(String userEmail, String skill, String proficiency, InterviewAnswer answer) {
+    }
+
+    void enqueueAnswer(ActiveInterviewSession session, InterviewAnswer answer) {
+        // Counted before it is queued, so a flush can never commit it before it is counted
+        unsavedAnswers.merge(session.id(), 1, Integer::sum);
+        pendingAnswers.add(new PendingAnswer(session.userEmail(), session.skill(), session.proficiency(), answer));
+        dirtySessions.put(session.id(), session);
+    }
+
+    void markDirty(ActiveInterviewSession session) {
+        dirtySessions.put(session.id(), session);
+    }
+
+    boolean isDirty(UUID sessionId) {
+        return dirtySessions.containsKey(sessionId) || unsavedAnswers.containsKey(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${interview.sessions.flush-interval-ms:2000}")
+    public void flush() {
+        if (flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void flushPending() {
+        // Claim dirty sessions before draining answers: anything enqueued after this point
+        // marks its session dirty again and is picked up by the next flush.
+        List<ActiveInterviewSession> sessions = new ArrayList<>(dirtySessions.size());
+        for (ActiveInterviewSession session : dirtySessions.values()) {
+            if (dirtySessions.remove(session.id(), session)) {
+                sessions.add(session);
+            }
+        }
+
+        List<InterviewSession> states = new ArrayList<>(sessions.size());
+        for (ActiveInterviewSession session : sessions) {
+            states.add(session.snapshot());
+        }
+
+        List<PendingAnswer> batch = new ArrayList<>(batchSize);
+        boolean statesWritten = false;
+        do {
+            batch.clear();
+            PendingAnswer pending;
+            while (batch.size() < batchSize && (pending = pendingAnswers.poll()) != null) {
+                batch.add(pending);
+            }
+            List<InterviewSession> statesForBatch = statesWritten ? List.of() : states;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    answerRepository.saveAll(batch.stream().map(PendingAnswer::answer).toList());
+                    analyticsService.addToRollups(batch);
+                    for (InterviewSession state : statesForBatch) {
+                        sessionRepository.updateState(state.getId(), state.getStatus(), state.getQuestionNumber(),
+                                state.getCurrentQuestion(), state.getCurrentDifficulty(),
+                                state.getProficiency(), state.getUpdatedAt());
+                    }
+                });
+                statesWritten = true;
+                for (PendingAnswer saved : batch) {
+                    unsavedAnswers.computeIfPresent(saved.answer().getSessionId(), (id, n) -> n > 1 ? n - 1 : null);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Interview session flush failed, {} answers will be retried: {}",
+                        batch.size(), e.getMessage());
+                pendingAnswers.addAll(batch);
+                // Even if the states went out with an earlier batch, keep the sessions
+                // dirty so the retry writes them again after the answers
+                sessions.forEach(s -> dirtySessions.putIfAbsent(s.id(), s));
+                return;
+            }
+        } while (batch.size() == batchSize);
+
+        if (!sessions.isEmpty()) {
+            log.debug("Flushed {} interview sessions", sessions.size());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        flushLock.lock();
+        try {
+            flushPending();
+            if (!pendingAnswers.isEmpty()) {
+                log.error("{} interview answers could not be persisted at shutdown", pendingAnswers.size());
+            }
+        } finally {
+            flushLock.unlock();
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return LifecyclePhases.AROUND_WEB_SERVER;
+    }
+}
@@ -1,58 +1,409 @@
 package com.app.demo.service;
 
-import lombok.RequiredArgsConstructor;
+import com.app.demo.model.dto.BulkLookupResponse;
+import com.app.demo.model.dto.JsonPayload;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Map;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
 
 @Service
 @Slf4j
 public class LightcastApiService {
 
+    private static final String SNAPSHOT_SECTION = "lightcast.responses";
+
     private final LightcastTokenService tokenService;
     private final RestTemplate restTemplate;
     private final String baseUrl;
+    private final long detailTtlMillis;
+    private final long searchTtlMillis;
+    private final int gzipMinBytes;
+    private final Map<String, CachedPayload> cache;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor bulkExecutor;
+    private final int bulkMaxIds;
+    private final long bulkTimeoutMillis;
+    private final CacheSnapshotStore snapshotStore;
+    private final SharedCache sharedCache;
+    private final Duration timeout;
+    // Upstream GETs in progress, so a request for a URL that is already being fetched (by a
+    // prefetch or another user) waits for that response instead of fetching it again
+    private final Map<String, CompletableFuture<JsonPayload>> loading = new ConcurrentHashMap<>();
 
     public LightcastApiService(LightcastTokenService tokenService,
-                                @Value("${lightcast.base-url}") String baseUrl) {
+                                RestTemplateBuilder restTemplateBuilder,
+                                ObjectMapper objectMapper,
+                                CacheSnapshotStore snapshotStore,
+                                SharedCache sharedCache,
+                                @Value("${lightcast.base-url}") String baseUrl,
+                                @Value("${lightcast.cache.detail-ttl-seconds:3600}") long detailTtlSeconds,
+                                @Value("${lightcast.cache.search-ttl-seconds:300}") long searchTtlSeconds,
+                                @Value("${lightcast.cache.max-entries:2000}") int maxEntries,
+                                @Value("${lightcast.cache.gzip-min-bytes:1024}") int gzipMinBytes,
+                                @Value("${lightcast.bulk.concurrency:8}") int bulkConcurrency,
+                                @Value("${lightcast.bulk.max-ids:100}") int bulkMaxIds,
+                                @Value("${lightcast.bulk.timeout-ms:10000}") long bulkTimeoutMillis,
+                                @Value("${lightcast.timeout-ms:15000}") long timeoutMillis) {
         this.tokenService = tokenService;
-        this.restTemplate = new RestTemplate();
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.restTemplate = DeadlineHttp.restTemplate(restTemplateBuilder, "lightcast", timeout);
         this.baseUrl = baseUrl;
+        this.detailTtlMillis = detailTtlSeconds * 1000;
+        this.searchTtlMillis = searchTtlSeconds * 1000;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPayload> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.objectMapper = objectMapper;
+        this.bulkMaxIds = bulkMaxIds;
+        this.bulkTimeoutMillis = bulkTimeoutMillis;
+        // Shared across requests so the total load on Lightcast stays bounded; when the queue
+        // is full the request thread does the lookup itself.
+        this.bulkExecutor = new ThreadPoolExecutor(bulkConcurrency, bulkConcurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(bulkConcurrency * 16), new CustomizableThreadFactory("lightcast-bulk-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.bulkExecutor.allowCoreThreadTimeOut(true);
+        this.snapshotStore = snapshotStore;
+        this.sharedCache = sharedCache;
+        sharedCache.onInvalidate(SNAPSHOT_SECTION, cache::remove);
+        snapshotStore.register(CacheSnapshotStore.Section.of(SNAPSHOT_SECTION, sink -> {
+            synchronized (cache) {
+                cache.forEach((url, cached) -> sink.accept(url, cached.expiresAt(), cached.payload().body()));
+            }
+        }));
     }
 
-    public Map<String, Object> searchSkills(String query, int limit) {
+    public JsonPayload searchSkills(String query, int limit) {
         String url = baseUrl + "/skills/versions/latest/skills?q=" + query + "&limit=" + limit;
-        return makeAuthenticatedGet(url);
+        return cachedGet(url, searchTtlMillis);
     }
 
-    public Map<String, Object> getSkillById(String skillId) {
-        String url = baseUrl + "/skills/versions/latest/skills/" + skillId;
-        return makeAuthenticatedGet(url);
+    public JsonPayload getSkillById(String skillId) {
+        return cachedGet(skillUrl(skillId), detailTtlMillis);
     }
 
-    public Map<String, Object> searchOccupations(String query, int limit) {
+    public JsonPayload searchOccupations(String query, int limit) {
         String url = baseUrl + "/titles/versions/latest/titles?q=" + query + "&limit=" + limit;
-        return makeAuthenticatedGet(url);
+        return cachedGet(url, searchTtlMillis);
+    }
+
+    public JsonPayload getOccupationById(String occupationId) {
+        return cachedGet(occupationUrl(occupationId), detailTtlMillis);
+    }
+
+    /**
+     * Loads a skill's detail into the cache for {@link LightcastPrefetcher}. Returns false
+     * if memory already held a live copy, i.e. there was nothing to prefetch.
+     */
+    boolean prefetchSkill(String skillId) {
+        return prefetch(skillUrl(skillId));
+    }
+
+    boolean prefetchOccupation(String occupationId) {
+        return prefetch(occupationUrl(occupationId));
+    }
+
+    /**
+     * Whether memory holds a live copy of the skill's detail, so prefetching it is pointless.
+     */
+    boolean hasSkill(String skillId) {
+        return isCached(skillUrl(skillId));
+    }
+
+    boolean hasOccupation(String occupationId) {
+        return isCached(occupationUrl(occupationId));
+    }
+
+    private boolean prefetch(String url) {
+        if (isCached(url)) {
+            return false;
+        }
+        cachedGet(url, detailTtlMillis);
+        return true;
+    }
+
+    private boolean isCached(String url) {
+        CachedPayload cached = cache.get(url);
+        return cached != null && cached.expiresAt() > System.currentTimeMillis();
+    }
+
+    /**
+     * Skills come from cache where possible and the rest from Lightcast's multi-skill
+     * lookup in one call; if that call fails the remaining ids are fetched individually.
+     */
+    public BulkLookupResponse getSkillsByIds(List<String> ids) {
+        List<String> distinctIds = distinct(ids);
+        Map<String, JsonNode> found = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+
+        List<String> missing = new ArrayList<>();
+        for (String id : distinctIds) {
+            JsonPayload cached = fresh(skillUrl(id));
+            if (cached != null) {
+                found.put(id, unwrap(cached.body()));
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                fetchSkillsInBulk(missing, found, errors);
+            } catch (RestClientException | IOException e) {
+                log.warn("Lightcast bulk skill lookup failed, falling back to per-id lookups: {}", e.getMessage());
+                fanOut(missing, this::getSkillById, found, errors);
+            }
+        }
+        return assemble(distinctIds, found, errors);
+    }
+
+    public BulkLookupResponse getOccupationsByIds(List<String> ids) {
+        List<String> distinctIds = distinct(ids);
+        Map<String, JsonNode> found = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        fanOut(distinctIds, this::getOccupationById, found, errors);
+        return assemble(distinctIds, found, errors);
+    }
+
+    private void fetchSkillsInBulk(List<String> ids, Map<String, JsonNode> found,
+                                   Map<String, String> errors) throws IOException {
+        byte[] body = makeAuthenticatedRequest(baseUrl + "/skills/versions/latest/skills",
+                HttpMethod.POST, Map.of("ids", ids));
+        long expiresAt = System.currentTimeMillis() + detailTtlMillis;
+        Set<String> requested = new HashSet<>(ids);
+        for (JsonNode skill : objectMapper.readTree(body).path("data")) {
+            String id = skill.path("id").asText();
+            if (requested.contains(id)) {
+                found.put(id, skill);
+                byte[] single = objectMapper.writeValueAsBytes(Map.of("data", skill));
+                store(skillUrl(id), JsonPayload.of(single, gzipMinBytes), expiresAt);
+            }
+        }
+        for (String id : ids) {
+            if (!found.containsKey(id)) {
+                errors.put(id, "not found");
+            }
+        }
+    }
+
+    private void fanOut(List<String> ids, Function<String, JsonPayload> lookup,
+                        Map<String, JsonNode> found, Map<String, String> errors) {
+        // Lookups run with the request's deadline; ids still pending when it (or the bulk
+        // timeout) passes are reported as timed out instead of failing the whole response
+        RequestDeadline requestDeadline = RequestDeadline.current();
+        Map<String, CompletableFuture<JsonNode>> pending = new LinkedHashMap<>();
+        for (String id : ids) {
+            pending.put(id, CompletableFuture.supplyAsync(() -> RequestDeadline.callWith(requestDeadline,
+                    () -> unwrap(lookup.apply(id).body())), bulkExecutor));
+        }
+
+        long deadline = System.nanoTime()
+                + RequestDeadline.budget("lightcast-bulk", Duration.ofMillis(bulkTimeoutMillis)).toNanos();
+        for (Map.Entry<String, CompletableFuture<JsonNode>> entry : pending.entrySet()) {
+            String id = entry.getKey();
+            try {
+                found.put(id, entry.getValue().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(false);
+                errors.put(id, "timed out");
+            } catch (ExecutionException e) {
+                errors.put(id, describe(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.put(id, "interrupted");
+            }
+        }
     }
 
-    public Map<String, Object> getOccupationById(String occupationId) {
-        String url = baseUrl + "/titles/versions/latest/titles/" + occupationId;
-        return makeAuthenticatedGet(url);
+    private List<String> distinct(List<String> ids) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) {
+                distinct.add(id.trim());
+            }
+        }
+        if (distinct.size() > bulkMaxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + bulkMaxIds + " distinct ids per request");
+        }
+        return new ArrayList<>(distinct);
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> makeAuthenticatedGet(String url) {
+    private static BulkLookupResponse assemble(List<String> ids, Map<String, JsonNode> found,
+                                               Map<String, String> errors) {
+        Map<String, JsonNode> data = new LinkedHashMap<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (String id : ids) {
+            if (found.containsKey(id)) {
+                data.put(id, found.get(id));
+            } else {
+                failed.put(id, errors.getOrDefault(id, "not found"));
+            }
+        }
+        return new BulkLookupResponse(data, failed);
+    }
+
+    private JsonNode unwrap(byte[] body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            return node.has("data") ? node.get("data") : node;
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid JSON from Lightcast", e);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        if (error instanceof HttpStatusCodeException statusError) {
+            return statusError.getStatusCode().value() == 404
+                    ? "not found"
+                    : "upstream returned " + statusError.getStatusCode().value();
+        }
+        return "lookup failed";
+    }
+
+    private String skillUrl(String skillId) {
+        return baseUrl + "/skills/versions/latest/skills/" + skillId;
+    }
+
+    private String occupationUrl(String occupationId) {
+        return baseUrl + "/titles/versions/latest/titles/" + occupationId;
+    }
+
+    /**
+     * Looks up {@code url} in memory, then in the warm-start snapshot, then in the shared
+     * tier. Returns null if none of them has a live copy.
+     */
+    private JsonPayload fresh(String url) {
+        CachedPayload cached = cache.get(url);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            snapshotStore.recordHit(SNAPSHOT_SECTION);
+            sharedCache.recordLocalHit(SNAPSHOT_SECTION);
+            return cached.payload();
+        }
+        byte[] body;
+        long expiresAt;
+        CacheSnapshotStore.Entry restored = snapshotStore.restore(SNAPSHOT_SECTION, url);
+        if (restored != null) {
+            sharedCache.recordLocalHit(SNAPSHOT_SECTION);
+            body = restored.value();
+            expiresAt = restored.expiresAt();
+        } else {
+            SharedCache.Entry shared = sharedCache.get(SNAPSHOT_SECTION, url);
+            if (shared == null) {
+                return null;
+            }
+            body = shared.value();
+            expiresAt = shared.expiresAt();
+        }
+        JsonPayload payload = JsonPayload.of(body, gzipMinBytes);
+        cache.put(url, new CachedPayload(payload, expiresAt));
+        return payload;
+    }
+
+    private JsonPayload cachedGet(String url, long ttlMillis) {
+        JsonPayload cached = fresh(url);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<JsonPayload> mine = new CompletableFuture<>();
+        CompletableFuture<JsonPayload> running = loading.putIfAbsent(url, mine);
+        if (running != null) {
+            JsonPayload joined = join(running);
+            // The other fetch failed or is too slow for this request: fetch it here
+            return joined != null ? joined : fetch(url, ttlMillis);
+        }
+        try {
+            // A fetch of this URL may have stored it and left the map since fresh() missed
+            CachedPayload stored = cache.get(url);
+            JsonPayload payload = stored != null && stored.expiresAt() > System.currentTimeMillis()
+                    ? stored.payload() : fetch(url, ttlMillis);
+            mine.complete(payload);
+            return payload;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(url, mine);
+        }
+    }
+
+    private JsonPayload fetch(String url, long ttlMillis) {
+        JsonPayload payload = JsonPayload.of(makeAuthenticatedRequest(url, HttpMethod.GET, null), gzipMinBytes);
+        store(url, payload, System.currentTimeMillis() + ttlMillis);
+        return payload;
+    }
+
+    /**
+     * Waits for another thread's fetch of the same URL, within this request's deadline.
+     * Returns null if that fetch failed or did not finish in time.
+     */
+    private JsonPayload join(CompletableFuture<JsonPayload> running) {
+        try {
+            return running.get(RequestDeadline.budget("lightcast", timeout).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            RequestDeadline.check("lightcast");
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted waiting for Lightcast");
+        }
+    }
+
+    private void store(String url, JsonPayload payload, long expiresAt) {
+        cache.put(url, new CachedPayload(payload, expiresAt));
+        sharedCache.put(SNAPSHOT_SECTION, url, payload.body(), expiresAt);
+    }
+
+    private byte[] makeAuthenticatedRequest(String url, HttpMethod method, Object body) {
         HttpHeaders headers = new HttpHeaders();
         headers.setBearerAuth(tokenService.getAccessToken());
         headers.setContentType(MediaType.APPLICATION_JSON);
 
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        HttpEntity<Object> entity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> response = restTemplate.exchange(url, method, entity, byte[].class);
+        return response.getBody() != null ? response.getBody() : new byte[0];
+    }
+
+    /**
+     * Fetches the access token and opens a keep-alive connection to the API host.
+     */
+    public void warmUp() {
+        tokenService.getAccessToken();
+        try {
+            restTemplate.exchange(baseUrl, HttpMethod.HEAD, HttpEntity.EMPTY, Void.class);
+        } catch (RestClientException e) {
+            // Any response, error status included, leaves the connection open
+            log.debug("Lightcast warm-up request: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkExecutor.shutdownNow();
+    }
 
-        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-        return response.getBody();
+    private record CachedPayload(JsonPayload payload, long expiresAt) {
     }
 }
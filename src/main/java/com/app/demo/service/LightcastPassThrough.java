@@ -0,0 +1,268 @@
+package com.app.demo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Pass-through mode for large Lightcast searches. Instead of buffering the whole
+ * upstream body (and caching it), the response is copied to the client through a fixed
+ * 8 KiB buffer as it arrives. If the client accepts gzip and no projection is asked for,
+ * Lightcast's gzip bytes are forwarded untouched. With {@code fields}, each item of the
+ * top-level {@code data} array is reduced to those fields in the same streaming pass.
+ *
+ * <p>Both paths report {@code lightcast.search.latency} and
+ * {@code lightcast.search.allocated} tagged {@code mode=buffered|streaming}; set
+ * {@code lightcast.stream.enabled=false} to collect the buffered baseline for the same
+ * traffic. Buffered numbers include cache hits, as users see them.
+ */
+@Service
+public class LightcastPassThrough {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_FIELDS = 50;
+
+    /**
+     * An upstream response ready to be copied to the client; {@link #writeTo} closes it.
+     */
+    public interface Stream {
+        /**
+         * {@code gzip} when the bytes written are gzip-compressed, otherwise null.
+         */
+        String contentEncoding();
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private final LightcastTokenService tokenService;
+    private final RestTemplate restTemplate;
+    private final JsonFactory jsonFactory;
+    private final MeterRegistry meterRegistry;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final String baseUrl;
+    private final boolean enabled;
+    private final int minLimit;
+
+    public LightcastPassThrough(LightcastTokenService tokenService,
+                                RestTemplateBuilder restTemplateBuilder,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${lightcast.base-url}") String baseUrl,
+                                @Value("${lightcast.stream.enabled:true}") boolean enabled,
+                                @Value("${lightcast.stream.min-limit:100}") int minLimit,
+                                @Value("${lightcast.timeout-ms:15000}") long timeoutMillis) {
+        this.tokenService = tokenService;
+        // The deadline bounds opening the upstream response; the copy itself runs on an
+        // async request thread after the handler has returned
+        this.restTemplate = DeadlineHttp.restTemplate(restTemplateBuilder, "lightcast",
+                Duration.ofMillis(timeoutMillis));
+        this.jsonFactory = objectMapper.getFactory();
+        this.meterRegistry = meterRegistry;
+        this.threadMXBean = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()
+                ? bean : null;
+        this.baseUrl = baseUrl;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Whether a search should be streamed rather than buffered and cached.
+     */
+    public boolean shouldStream(int limit, String fields) {
+        return enabled && (limit >= minLimit || (fields != null && !fields.isBlank()));
+    }
+
+    public Stream searchSkills(String query, int limit, String fields, boolean clientAcceptsGzip) throws IOException {
+        return open(baseUrl + "/skills/versions/latest/skills?q=" + query + "&limit=" + limit,
+                parseFields(fields), clientAcceptsGzip);
+    }
+
+    public Stream searchOccupations(String query, int limit, String fields, boolean clientAcceptsGzip)
+            throws IOException {
+        return open(baseUrl + "/titles/versions/latest/titles?q=" + query + "&limit=" + limit,
+                parseFields(fields), clientAcceptsGzip);
+    }
+
+    /**
+     * Runs a buffered search with the same measurements as the streaming path.
+     */
+    public <T> T measureBuffered(Supplier<T> search) {
+        long start = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        try {
+            return search.get();
+        } finally {
+            record("buffered", System.nanoTime() - start, allocatedBytes() - allocatedBefore);
+        }
+    }
+
+    private Stream open(String url, Set<String> fields, boolean clientAcceptsGzip) throws IOException {
+        long start = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        // Same URI encoding as RestTemplate applies to the buffered path's String URLs
+        URI uri = restTemplate.getUriTemplateHandler().expand(url);
+        ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+        request.getHeaders().setBearerAuth(tokenService.getAccessToken());
+        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+        request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ClientHttpResponse response = request.execute();
+        try {
+            // Upstream errors surface exactly as on the buffered path, before any byte is sent
+            if (restTemplate.getErrorHandler().hasError(response)) {
+                restTemplate.getErrorHandler().handleError(uri, HttpMethod.GET, response);
+            }
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+        boolean upstreamGzip = "gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        boolean forwardGzip = upstreamGzip && clientAcceptsGzip && fields.isEmpty();
+        long openNanos = System.nanoTime() - start;
+        long openAllocated = allocatedBytes() - allocatedBefore;
+
+        return new Stream() {
+            @Override
+            public String contentEncoding() {
+                return forwardGzip ? "gzip" : null;
+            }
+
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                // Runs on an async request thread, so it is measured separately and added up
+                long copyStart = System.nanoTime();
+                long copyAllocatedBefore = allocatedBytes();
+                try (ClientHttpResponse upstream = response) {
+                    InputStream body = upstream.getBody();
+                    if (upstreamGzip && !forwardGzip) {
+                        body = new GZIPInputStream(body, BUFFER_SIZE);
+                    }
+                    if (fields.isEmpty()) {
+                        body.transferTo(out);
+                    } else {
+                        project(body, out, fields);
+                    }
+                    out.flush();
+                } finally {
+                    record("streaming", openNanos + System.nanoTime() - copyStart,
+                            openAllocated + allocatedBytes() - copyAllocatedBefore);
+                }
+            }
+        };
+    }
+
+    private void project(InputStream in, OutputStream out, Set<String> fields) throws IOException {
+        try (JsonParser parser = new FilteringParserDelegate(jsonFactory.createParser(in),
+                new DataFieldsFilter(fields), TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+             JsonGenerator generator = jsonFactory.createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+    }
+
+    private static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Set.of();
+        }
+        Set<String> parsed = new HashSet<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank() && parsed.size() < MAX_FIELDS) {
+                parsed.add(field.trim());
+            }
+        }
+        return parsed;
+    }
+
+    private long allocatedBytes() {
+        return threadMXBean != null ? threadMXBean.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private void record(String mode, long nanos, long allocated) {
+        Timer.builder("lightcast.search.latency")
+                .description("Lightcast search latency by response mode")
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (threadMXBean != null) {
+            DistributionSummary.builder("lightcast.search.allocated")
+                    .description("Heap allocated while serving a Lightcast search, by response mode")
+                    .baseUnit("bytes")
+                    .tag("mode", mode)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)
+                    .record(allocated);
+        }
+    }
+
+    /**
+     * Keeps the whole document except that items of the top-level {@code data} array (or
+     * {@code data} itself, if it is an object) keep only the requested fields.
+     */
+    private static final class DataFieldsFilter extends TokenFilter {
+
+        private final TokenFilter dataFilter;
+
+        DataFieldsFilter(Set<String> fields) {
+            this.dataFilter = new FieldsFilter(fields);
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            return "data".equals(name) ? dataFilter : TokenFilter.INCLUDE_ALL;
+        }
+    }
+
+    private static final class FieldsFilter extends TokenFilter {
+
+        private final Set<String> fields;
+
+        FieldsFilter(Set<String> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public TokenFilter includeElement(int index) {
+            return this;
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            return fields.contains(name) ? TokenFilter.INCLUDE_ALL : null;
+        }
+
+        @Override
+        public boolean includeEmptyObject(boolean contentsFiltered) {
+            // Keep items without any requested field so positions still line up
+            return true;
+        }
+    }
+}
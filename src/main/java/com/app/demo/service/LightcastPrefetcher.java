@@ -0,0 +1,250 @@
+package com.app.demo.service;
+
+import com.app.demo.model.dto.JsonPayload;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * After a search, loads the details of the top {@code lightcast.prefetch.top-k} results
+ * into {@link LightcastApiService}'s cache in the background, since users almost always
+ * open one of the first few. Each user gets a budget of prefetches per minute; an id that
+ * is already cached or being fetched is skipped before it costs any budget.
+ *
+ * <p>{@code lightcast.prefetch} counts outcomes per kind: {@code used} when a prefetched
+ * detail is requested within the usage window, {@code wasted} when it is not. Accuracy
+ * is used / (used + wasted); if it is low, lower K.
+ */
+@Component
+@Slf4j
+public class LightcastPrefetcher {
+
+    public enum Kind {
+        SKILL("skill"),
+        OCCUPATION("occupation");
+
+        private final String tag;
+
+        Kind(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final LightcastApiService lightcastApiService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int topK;
+    private final int perUserPerMinute;
+    private final long usageWindowMillis;
+    private final ThreadPoolExecutor executor;
+    // Key -> whether the detail was requested while its prefetch was still running
+    private final Map<String, Boolean> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, UserBudget> budgets = new ConcurrentHashMap<>();
+    // Prefetched and not yet requested, by key, with the time the prefetch completed
+    private final Map<String, Long> unused;
+
+    public LightcastPrefetcher(LightcastApiService lightcastApiService,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${lightcast.prefetch.enabled:true}") boolean enabled,
+                               @Value("${lightcast.prefetch.top-k:3}") int topK,
+                               @Value("${lightcast.prefetch.per-user-per-minute:30}") int perUserPerMinute,
+                               @Value("${lightcast.prefetch.usage-window-seconds:600}") long usageWindowSeconds,
+                               @Value("${lightcast.prefetch.threads:4}") int threads,
+                               @Value("${lightcast.prefetch.queue-capacity:100}") int queueCapacity,
+                               @Value("${lightcast.prefetch.max-tracked:5000}") int maxTracked) {
+        this.lightcastApiService = lightcastApiService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.perUserPerMinute = perUserPerMinute;
+        this.usageWindowMillis = usageWindowSeconds * 1000;
+        // Prefetches are optional work: when the queue is full they are dropped, not run inline
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("lightcast-prefetch-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.unused = Collections.synchronizedMap(new LinkedHashMap<>(256) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > maxTracked) {
+                    counter(kindOf(eldest.getKey()), "wasted").increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Queues detail prefetches for the top results of a search {@code user} just ran.
+     */
+    public void afterSearch(String user, Kind kind, JsonPayload results) {
+        if (!enabled || topK <= 0) {
+            return;
+        }
+        List<String> ids;
+        try {
+            ids = topIds(results.body());
+        } catch (IOException e) {
+            log.debug("Not prefetching, unreadable {} search results: {}", kind.tag, e.getMessage());
+            return;
+        }
+        UserBudget budget = budgets.computeIfAbsent(user, u -> new UserBudget());
+        for (String id : ids) {
+            String key = key(kind, id);
+            if (unused.containsKey(key)) {
+                continue;
+            }
+            if (kind == Kind.SKILL ? lightcastApiService.hasSkill(id) : lightcastApiService.hasOccupation(id)) {
+                counter(kind, "already_cached").increment();
+                continue;
+            }
+            if (inFlight.putIfAbsent(key, false) != null) {
+                counter(kind, "deduplicated").increment();
+                continue;
+            }
+            if (!budget.tryTake(perUserPerMinute)) {
+                inFlight.remove(key);
+                counter(kind, "over_budget").increment();
+                return;
+            }
+            try {
+                executor.execute(() -> fetch(kind, id, key));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key);
+                counter(kind, "rejected").increment();
+                return;
+            }
+        }
+    }
+
+    private void fetch(Kind kind, String id, String key) {
+        boolean fetched = false;
+        try {
+            fetched = kind == Kind.SKILL
+                    ? lightcastApiService.prefetchSkill(id)
+                    : lightcastApiService.prefetchOccupation(id);
+            counter(kind, fetched ? "fetched" : "already_cached").increment();
+        } catch (RuntimeException e) {
+            log.debug("Prefetching {} {} failed: {}", kind.tag, id, e.getMessage());
+            counter(kind, "failed").increment();
+        } finally {
+            boolean requested = inFlight.remove(key);
+            if (fetched && !requested) {
+                unused.put(key, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Called when a detail is requested, so prefetches can be scored as used. A request
+     * that arrives while the prefetch is still running counts as used too: it waits for the
+     * prefetch's response in {@link LightcastApiService} rather than calling Lightcast again.
+     */
+    public void recordDetailRequest(Kind kind, String id) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(kind, id);
+        if (unused.remove(key) != null || inFlight.replace(key, false, true)) {
+            counter(kind, "used").increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lightcast.prefetch.prune-interval-ms:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        List<String> expired = new ArrayList<>();
+        synchronized (unused) {
+            unused.entrySet().removeIf(entry -> {
+                if (now - entry.getValue() > usageWindowMillis) {
+                    expired.add(entry.getKey());
+                    return true;
+                }
+                return false;
+            });
+        }
+        expired.forEach(key -> counter(kindOf(key), "wasted").increment());
+        budgets.values().removeIf(budget -> budget.isIdle(now));
+    }
+
+    private List<String> topIds(byte[] body) throws IOException {
+        JsonNode data = objectMapper.readTree(body).path("data");
+        List<String> ids = new ArrayList<>(topK);
+        for (JsonNode result : data) {
+            if (ids.size() == topK) {
+                break;
+            }
+            String id = result.path("id").asText(null);
+            if (id != null && !id.isBlank()) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static String key(Kind kind, String id) {
+        return kind.tag + ":" + id;
+    }
+
+    private static Kind kindOf(String key) {
+        return key.startsWith(Kind.SKILL.tag + ":") ? Kind.SKILL : Kind.OCCUPATION;
+    }
+
+    private Counter counter(Kind kind, String outcome) {
+        return Counter.builder("lightcast.prefetch")
+                .description("Lightcast detail prefetches by outcome; accuracy = used / (used + wasted)")
+                .tag("kind", kind.tag)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Prefetches taken by one user in the current one-minute window.
+     */
+    private static final class UserBudget {
+
+        private long windowStart;
+        private int taken;
+
+        synchronized boolean tryTake(int perMinute) {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= 60_000) {
+                windowStart = now;
+                taken = 0;
+            }
+            if (taken >= perMinute) {
+                return false;
+            }
+            taken++;
+            return true;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - windowStart >= 60_000;
+        }
+    }
+}
@@ -2,23 +2,30 @@ package com.app.demo.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 
 @Service
 @Slf4j
 public class LightcastTokenService {
 
+    private static final String SNAPSHOT_SECTION = "lightcast.token";
+
     private final String clientId;
     private final String clientSecret;
     private final String tokenUrl;
     private final long tokenExpiryDuration;
     private final RestTemplate restTemplate;
+    private final CacheSnapshotStore snapshotStore;
+    private final SharedCache sharedCache;
 
     private String cachedToken;
     private long tokenExpiryTime;
@@ -26,16 +33,56 @@ public class LightcastTokenService {
     public LightcastTokenService(@Value("${lightcast.client-id}") String clientId,
                                   @Value("${lightcast.client-secret}") String clientSecret,
                                   @Value("${lightcast.token-url}") String tokenUrl,
-                                  @Value("${lightcast.token-expiry-duration}") long tokenExpiryDuration) {
+                                  @Value("${lightcast.token-expiry-duration}") long tokenExpiryDuration,
+                                  RestTemplateBuilder restTemplateBuilder,
+                                  CacheSnapshotStore snapshotStore,
+                                  SharedCache sharedCache,
+                                  @Value("${lightcast.timeout-ms:15000}") long timeoutMillis) {
         this.clientId = clientId;
         this.clientSecret = clientSecret;
         this.tokenUrl = tokenUrl;
         this.tokenExpiryDuration = tokenExpiryDuration;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = DeadlineHttp.restTemplate(restTemplateBuilder, "lightcast-token",
+                Duration.ofMillis(timeoutMillis));
+        this.snapshotStore = snapshotStore;
+        this.sharedCache = sharedCache;
+        snapshotStore.register(CacheSnapshotStore.Section.of(SNAPSHOT_SECTION, sink -> {
+            synchronized (this) {
+                if (cachedToken != null) {
+                    sink.accept(clientId, tokenExpiryTime, cachedToken.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }));
+        // Another instance fetched a new token: drop ours (SharedCache also masks it in the
+        // snapshot) so the next call reads the shared one
+        sharedCache.onInvalidate(SNAPSHOT_SECTION, key -> {
+            synchronized (this) {
+                if (key.equals(clientId)) {
+                    cachedToken = null;
+                }
+            }
+        });
     }
 
     public synchronized String getAccessToken() {
         if (cachedToken != null && System.currentTimeMillis() < tokenExpiryTime) {
+            snapshotStore.recordHit(SNAPSHOT_SECTION);
+            sharedCache.recordLocalHit(SNAPSHOT_SECTION);
+            return cachedToken;
+        }
+        if (cachedToken == null) {
+            CacheSnapshotStore.Entry restored = snapshotStore.restore(SNAPSHOT_SECTION, clientId);
+            if (restored != null) {
+                sharedCache.recordLocalHit(SNAPSHOT_SECTION);
+                cachedToken = new String(restored.value(), StandardCharsets.UTF_8);
+                tokenExpiryTime = restored.expiresAt();
+                return cachedToken;
+            }
+        }
+        SharedCache.Entry shared = sharedCache.get(SNAPSHOT_SECTION, clientId);
+        if (shared != null) {
+            cachedToken = new String(shared.value(), StandardCharsets.UTF_8);
+            tokenExpiryTime = shared.expiresAt();
             return cachedToken;
         }
 
@@ -56,6 +103,7 @@ public class LightcastTokenService {
         if (response != null && response.containsKey("access_token")) {
             cachedToken = (String) response.get("access_token");
             tokenExpiryTime = System.currentTimeMillis() + tokenExpiryDuration - 60000; // Refresh 1 min early
+            sharedCache.put(SNAPSHOT_SECTION, clientId, cachedToken.getBytes(StandardCharsets.UTF_8), tokenExpiryTime);
             log.info("Lightcast token refreshed successfully");
         } else {
             throw new RuntimeException("Failed to obtain Lightcast access token");
@@ -0,0 +1,440 @@
+package com.app.demo.service;
+
+import com.app.demo.config.LifecyclePhases;
+import com.app.demo.model.RoomEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Receives LiveKit webhooks. The request thread only verifies the signature (HS256 JWT
+ * from the API secret, whose {@code sha256} claim must match the body), pulls the few
+ * fields we use out of the JSON with a streaming parser, updates in-memory room
+ * occupancy and queues the event; persistence happens in batches on the flush schedule,
+ * and once more when the context stops. Redeliveries are dropped by a window of recent
+ * event ids and, across restarts and instances, by the unique index on event_id. Rooms
+ * that see no event for {@code livekit.webhook.room-idle-expiry-ms} are dropped from
+ * occupancy, in case their room_finished was lost.
+ */
+@Service
+@Slf4j
+public class LiveKitWebhookService implements SmartLifecycle {
+
+    private static final Set<String> PERSISTED_EVENTS = Set.of(
+            "room_started", "room_finished", "participant_joined", "participant_left");
+
+    public enum Outcome {
+        ACCEPTED, DUPLICATE, IGNORED, INVALID, OVERLOADED
+    }
+
+    private final String apiKey;
+    private final JwtParser jwtParser;
+    private final JsonFactory jsonFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long roomIdleExpiryMillis;
+
+    private final LinkedBlockingDeque<RoomEvent> pending;
+    private final Map<String, Room> occupancy = new ConcurrentHashMap<>();
+    private final Set<String> recentEventIds;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter dropped;
+    private final Counter redelivered;
+    private final Counter rejected;
+    private volatile boolean running;
+
+    public LiveKitWebhookService(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${livekit.api.key}") String apiKey,
+                                 @Value("${livekit.api.secret}") String apiSecret,
+                                 @Value("${livekit.webhook.queue-capacity:20000}") int queueCapacity,
+                                 @Value("${livekit.webhook.batch-size:500}") int batchSize,
+                                 @Value("${livekit.webhook.dedupe-window:10000}") int dedupeWindow,
+                                 @Value("${livekit.webhook.room-idle-expiry-ms:43200000}") long roomIdleExpiryMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.apiKey = apiKey;
+        // Key and parser are built once; parsing a webhook then costs one HMAC
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(apiSecret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.jsonFactory = objectMapper.getFactory();
+        this.batchSize = batchSize;
+        this.roomIdleExpiryMillis = roomIdleExpiryMillis;
+        this.pending = new LinkedBlockingDeque<>(queueCapacity);
+        this.recentEventIds = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupeWindow;
+            }
+        });
+        this.dropped = Counter.builder("livekit.webhook.dropped")
+                .description("Webhook events lost because a batch could not be persisted or re-queued")
+                .register(meterRegistry);
+        this.redelivered = Counter.builder("livekit.webhook.redelivered")
+                .description("Webhook events skipped on insert because an earlier delivery was already stored")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("livekit.webhook.rejected")
+                .description("Webhook events dropped because the database rejected their row")
+                .register(meterRegistry);
+        Gauge.builder("livekit.rooms.active", occupancy, Map::size)
+                .description("Rooms started and not yet finished")
+                .register(meterRegistry);
+        Gauge.builder("livekit.participants.active", occupancy,
+                        rooms -> rooms.values().stream().mapToInt(room -> room.participants.get()).sum())
+                .description("Participants currently in rooms")
+                .register(meterRegistry);
+        Gauge.builder("livekit.webhook.pending", pending, Collection::size)
+                .description("Webhook events waiting to be persisted")
+                .register(meterRegistry);
+    }
+
+    private record ParsedEvent(String id, String event, long createdAtSeconds, String roomSid, String roomName,
+                               String participantSid, String participantIdentity) {
+    }
+
+    public Outcome receive(byte[] body, String authorization) {
+        if (!verify(body, authorization)) {
+            count("unknown", Outcome.INVALID);
+            return Outcome.INVALID;
+        }
+        ParsedEvent parsed;
+        try {
+            parsed = parse(body);
+        } catch (IOException e) {
+            count("unknown", Outcome.INVALID);
+            return Outcome.INVALID;
+        }
+        if (parsed.event() == null || !PERSISTED_EVENTS.contains(parsed.event())) {
+            count("other", Outcome.IGNORED);
+            return Outcome.IGNORED;
+        }
+        if (parsed.id() != null) {
+            synchronized (recentEventIds) {
+                if (!recentEventIds.add(parsed.id())) {
+                    count(parsed.event(), Outcome.DUPLICATE);
+                    return Outcome.DUPLICATE;
+                }
+            }
+        }
+
+        RoomEvent event = RoomEvent.builder()
+                .eventId(truncate(parsed.id()))
+                .event(parsed.event())
+                .roomSid(truncate(parsed.roomSid()))
+                .roomName(truncate(parsed.roomName()))
+                .participantSid(truncate(parsed.participantSid()))
+                .participantIdentity(truncate(parsed.participantIdentity()))
+                .createdAt(parsed.createdAtSeconds() > 0 ? Instant.ofEpochSecond(parsed.createdAtSeconds()) : null)
+                .receivedAt(Instant.now())
+                .build();
+        if (!pending.offerLast(event)) {
+            // Not acknowledged, so LiveKit redelivers it later; forget the id so that redelivery is accepted
+            if (parsed.id() != null) {
+                synchronized (recentEventIds) {
+                    recentEventIds.remove(parsed.id());
+                }
+            }
+            count(parsed.event(), Outcome.OVERLOADED);
+            return Outcome.OVERLOADED;
+        }
+        updateOccupancy(parsed);
+        count(parsed.event(), Outcome.ACCEPTED);
+        return Outcome.ACCEPTED;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > RoomEvent.MAX_TEXT_LENGTH
+                ? value.substring(0, RoomEvent.MAX_TEXT_LENGTH) : value;
+    }
+
+    /**
+     * Participants currently in each room, by room name.
+     */
+    public Map<String, Integer> occupancy() {
+        Map<String, Integer> snapshot = new TreeMap<>();
+        occupancy.forEach((name, room) -> snapshot.put(name, room.participants.get()));
+        return snapshot;
+    }
+
+    private void updateOccupancy(ParsedEvent event) {
+        String room = event.roomName();
+        if (room == null) {
+            return;
+        }
+        switch (event.event()) {
+            case "room_started" -> occupancy.computeIfAbsent(room, r -> new Room()).touch();
+            case "room_finished" -> occupancy.remove(room);
+            case "participant_joined" -> {
+                Room state = occupancy.computeIfAbsent(room, r -> new Room());
+                state.participants.incrementAndGet();
+                state.touch();
+            }
+            case "participant_left" -> {
+                Room state = occupancy.get(room);
+                if (state != null) {
+                    state.participants.getAndUpdate(n -> Math.max(0, n - 1));
+                    state.touch();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${livekit.webhook.room-expiry-check-ms:600000}")
+    public void expireIdleRooms() {
+        long cutoff = System.currentTimeMillis() - roomIdleExpiryMillis;
+        occupancy.entrySet().removeIf(entry -> {
+            if (entry.getValue().lastEventMillis < cutoff) {
+                log.info("Dropping room {} from occupancy: no webhook for {} s", entry.getKey(),
+                        roomIdleExpiryMillis / 1000);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    boolean verify(byte[] body, String authorization) {
+        if (authorization == null || authorization.isBlank()) {
+            return false;
+        }
+        String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+        String expected = claims.get("sha256", String.class);
+        if (!apiKey.equals(claims.getIssuer()) || expected == null) {
+            return false;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return MessageDigest.isEqual(Base64.getEncoder().encode(digest),
+                    expected.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads only the fields we keep and skips every other subtree without materializing
+     * it. Field names are canonicalized by Jackson's symbol table, so apart from the kept
+     * values nothing is allocated per field.
+     */
+    private ParsedEvent parse(byte[] body) throws IOException {
+        String id = null;
+        String event = null;
+        long createdAt = 0;
+        String[] room = new String[2];
+        String[] participant = new String[2];
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Webhook body is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> id = parser.getValueAsString();
+                    case "event" -> event = parser.getValueAsString();
+                    // int64 fields arrive as JSON strings (protobuf JSON encoding)
+                    case "createdAt" -> createdAt = parser.getValueAsLong();
+                    case "room" -> readSidAndName(parser, room, "name");
+                    case "participant" -> readSidAndName(parser, participant, "identity");
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return new ParsedEvent(id, event, createdAt, room[0], room[1], participant[0], participant[1]);
+    }
+
+    private static void readSidAndName(JsonParser parser, String[] target, String nameField) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("sid".equals(field)) {
+                target[0] = parser.getValueAsString();
+            } else if (nameField.equals(field)) {
+                target[1] = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${livekit.webhook.flush-interval-ms:1000}")
+    public void flush() {
+        if (flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void flushPending() {
+        List<RoomEvent> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+            } catch (RuntimeException e) {
+                log.warn("Persisting {} LiveKit events failed, retrying one by one: {}", batch.size(), e.getMessage());
+                if (!insertEach(batch)) {
+                    return;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts the rows of a failed batch one at a time, so one bad row cannot hold back
+     * the rest. A row the database rejects outright is dropped and counted; on any other
+     * failure (database unreachable, timeout) the remaining rows go back to the head of
+     * the queue and false is returned.
+     */
+    private boolean insertEach(List<RoomEvent> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            RoomEvent event = batch.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(event)));
+            } catch (NonTransientDataAccessException e) {
+                if (e instanceof DataAccessResourceFailureException) {
+                    // Connection trouble is non-transient to Spring, but not the row's fault
+                    return requeueFrom(batch, i, e);
+                }
+                rejected.increment();
+                log.error("Dropping LiveKit event {} ({}) the database rejected: {}",
+                        event.getEventId(), event.getEvent(), e.getMessage());
+            } catch (RuntimeException e) {
+                return requeueFrom(batch, i, e);
+            }
+        }
+        return true;
+    }
+
+    private boolean requeueFrom(List<RoomEvent> batch, int from, RuntimeException cause) {
+        log.warn("Persisting LiveKit events failed, will retry: {}", cause.getMessage());
+        for (int i = batch.size() - 1; i >= from; i--) {
+            if (!pending.offerFirst(batch.get(i))) {
+                dropped.increment();
+            }
+        }
+        return false;
+    }
+
+    private void insert(List<RoomEvent> batch) {
+        int[][] counts = jdbcTemplate.batchUpdate("insert into livekit_room_events (id, event_id, event, " +
+                        "room_sid, room_name, participant_sid, participant_identity, created_at, received_at) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?, ?) on conflict (event_id) do nothing",
+                batch, batch.size(), (ps, event) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setString(2, event.getEventId());
+                    ps.setString(3, event.getEvent());
+                    ps.setString(4, event.getRoomSid());
+                    ps.setString(5, event.getRoomName());
+                    ps.setString(6, event.getParticipantSid());
+                    ps.setString(7, event.getParticipantIdentity());
+                    ps.setTimestamp(8, event.getCreatedAt() != null ? Timestamp.from(event.getCreatedAt()) : null);
+                    ps.setTimestamp(9, Timestamp.from(event.getReceivedAt()));
+                });
+        for (int[] chunk : counts) {
+            for (int rows : chunk) {
+                if (rows == 0) {
+                    redelivered.increment();
+                }
+            }
+        }
+    }
+
+    private void count(String event, Outcome outcome) {
+        Counter.builder("livekit.webhook.events")
+                .description("LiveKit webhook events by type and outcome")
+                .tag("event", event)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        flushLock.lock();
+        try {
+            flushPending();
+            if (!pending.isEmpty()) {
+                log.error("{} LiveKit webhook events could not be persisted at shutdown", pending.size());
+            }
+        } finally {
+            flushLock.unlock();
+            running = false;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return LifecyclePhases.AROUND_WEB_SERVER;
+    }
+
+    private static final class Room {
+
+        private final AtomicInteger participants = new AtomicInteger();
+        private volatile long lastEventMillis = System.currentTimeMillis();
+
+        void touch() {
+            lastEventMillis = System.currentTimeMillis();
+        }
+    }
+}
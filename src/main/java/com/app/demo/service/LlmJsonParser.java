@@ -0,0 +1,204 @@
+package com.app.demo.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses JSON produced by the LLM. The model sometimes wraps its answer in markdown
+ * fences, adds a sentence before or after it, or gets cut off by {@code max_tokens},
+ * so parsing starts at the first brace, ignores trailing text, and closes any
+ * unterminated strings/objects before giving up.
+ */
+@Component
+public class LlmJsonParser {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public LlmJsonParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> T parse(String content, Class<T> type) throws IOException {
+        int start = jsonStart(content);
+        if (start < 0) {
+            throw new IOException("No JSON object found in model output");
+        }
+        ObjectReader reader = readers.computeIfAbsent(type, t -> objectMapper.readerFor(t)
+                .withFeatures(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS, JsonReadFeature.ALLOW_TRAILING_COMMA)
+                .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS));
+        try {
+            return read(reader, content, start);
+        } catch (StreamReadException malformed) {
+            // A cut-off literal or number, or a dangling comma, fails as a parse error
+            // rather than at end-of-input, so every parse error gets one repair attempt
+            String repaired = closeTruncated(content, start);
+            if (repaired.contentEquals(content.subSequence(start, content.length()))) {
+                throw malformed;
+            }
+            try {
+                return read(reader, repaired, 0);
+            } catch (StreamReadException stillMalformed) {
+                malformed.addSuppressed(stillMalformed);
+                throw malformed;
+            }
+        }
+    }
+
+    private <T> T read(ObjectReader reader, String content, int start) throws IOException {
+        try (JsonParser parser = reader.createParser(content.toCharArray(), start, content.length() - start)) {
+            return reader.readValue(parser);
+        }
+    }
+
+    private static int jsonStart(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '{' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Repairs output that stopped mid-document. A cut inside a string value keeps the
+     * partial text and closes the string; a cut anywhere else (inside a key, a literal or
+     * number, or after a ':' or ',') drops back to the end of the last complete value.
+     * Every container still open at that point is then closed in reverse order.
+     */
+    static String closeTruncated(String content, int start) {
+        Deque<Frame> open = new ArrayDeque<>();
+        boolean inString = false;
+        boolean inKey = false;
+        boolean escaped = false;
+        boolean inScalar = false;
+        // End of the last complete value (or of the last opening bracket), and how many
+        // containers were open there; every container opened later is still open
+        int safeEnd = start;
+        int safeDepth = 0;
+        for (int i = start; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (!inKey) {
+                        safeEnd = i + 1;
+                        safeDepth = open.size();
+                    }
+                }
+                continue;
+            }
+            if (inScalar) {
+                if (c != '"' && c != '{' && c != '[' && c != '}' && c != ']' && c != ',' && c != ':'
+                        && !Character.isWhitespace(c)) {
+                    continue;
+                }
+                inScalar = false;
+                safeEnd = i;
+                safeDepth = open.size();
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    inKey = !open.isEmpty() && open.peek().expectingKey();
+                }
+                case '{', '[' -> {
+                    open.push(c == '{' ? Frame.OBJECT_KEY : Frame.ARRAY);
+                    safeEnd = i + 1;
+                    safeDepth = open.size();
+                }
+                case '}', ']' -> {
+                    if (!open.isEmpty()) open.pop();
+                    safeEnd = i + 1;
+                    safeDepth = open.size();
+                }
+                case ':' -> {
+                    if (open.peek() == Frame.OBJECT_KEY) {
+                        open.pop();
+                        open.push(Frame.OBJECT_VALUE);
+                    }
+                }
+                case ',' -> {
+                    if (open.peek() == Frame.OBJECT_VALUE) {
+                        open.pop();
+                        open.push(Frame.OBJECT_KEY);
+                    }
+                }
+                default -> inScalar = !Character.isWhitespace(c);
+            }
+        }
+
+        StringBuilder repaired;
+        if (inString && !inKey) {
+            repaired = new StringBuilder(content.length() + open.size() + 1).append(content, start, content.length());
+            dropPartialEscape(repaired);
+            repaired.append('"');
+        } else {
+            repaired = new StringBuilder(safeEnd - start + safeDepth).append(content, start, safeEnd);
+            while (open.size() > safeDepth) {
+                open.pop();
+            }
+        }
+        while (!open.isEmpty()) {
+            repaired.append(open.pop().closer());
+        }
+        return repaired.toString();
+    }
+
+    private enum Frame {
+        OBJECT_KEY('}'), OBJECT_VALUE('}'), ARRAY(']');
+
+        private final char closer;
+
+        Frame(char closer) {
+            this.closer = closer;
+        }
+
+        char closer() {
+            return closer;
+        }
+
+        boolean expectingKey() {
+            return this == OBJECT_KEY;
+        }
+    }
+
+    /**
+     * Removes an escape sequence cut off before it was complete (a lone backslash, or a
+     * unicode escape with fewer than four hex digits) from the end of a string's text.
+     */
+    private static void dropPartialEscape(StringBuilder s) {
+        int backslash = s.lastIndexOf("\\");
+        if (backslash < 0 || s.length() - backslash > 5) {
+            return;
+        }
+        int run = 0;
+        for (int i = backslash; i >= 0 && s.charAt(i) == '\\'; i--) {
+            run++;
+        }
+        if (run % 2 == 0) {
+            return;
+        }
+        boolean partial = s.length() - backslash == 1
+                || s.charAt(backslash + 1) == 'u' && s.length() - backslash < 6;
+        if (partial) {
+            s.setLength(backslash);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.app.demo.service;
+
+import com.app.demo.model.dto.AdaptiveQuestionResponse;
+import com.app.demo.model.dto.PreviousResult;
+import com.app.demo.model.groq.GeneratedQuestion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * While a candidate answers question N, generates question N+1 for every difficulty
+ * band the pending score could still land the session in. When the next question is
+ * requested the band is known, so the matching speculation is returned (waiting for it
+ * if it is still in flight) and the others are cancelled.
+ */
+@Component
+@Slf4j
+public class QuestionSpeculator {
+
+    private static final String[] BANDS = {"beginner", "intermediate", "advanced"};
+
+    private final InterviewService interviewService;
+    private final boolean enabled;
+    private final long claimWaitMillis;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, Speculation> speculations = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter launched;
+    private final Counter rejected;
+
+    private record Speculation(int questionNumber, Map<String, Future<GeneratedQuestion>> byBand) {
+        void cancel() {
+            byBand.values().forEach(f -> f.cancel(true));
+        }
+    }
+
+    public QuestionSpeculator(InterviewService interviewService,
+                              MeterRegistry meterRegistry,
+                              @Value("${interview.speculation.enabled:true}") boolean enabled,
+                              @Value("${interview.speculation.threads:6}") int threads,
+                              @Value("${interview.speculation.queue-capacity:60}") int queueCapacity,
+                              @Value("${interview.speculation.claim-wait-ms:10000}") long claimWaitMillis) {
+        this.interviewService = interviewService;
+        this.enabled = enabled;
+        this.claimWaitMillis = claimWaitMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("speculate-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.launched = counter(meterRegistry, "launched");
+        this.rejected = counter(meterRegistry, "rejected");
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("interview.speculation")
+                .description("Speculative next-question generation; hit rate = hit / (hit + miss)")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Starts generating question {@code questionNumber + 1} for each band the answer to
+     * {@code pendingQuestion} can still lead to. Replaces any earlier speculation.
+     */
+    public void speculate(UUID sessionId, String skill, int questionNumber,
+                          List<PreviousResult> previousResults, String pendingQuestion) {
+        if (!enabled) {
+            return;
+        }
+        int nextNumber = questionNumber + 1;
+        Map<String, Future<GeneratedQuestion>> byBand = new LinkedHashMap<>();
+        try {
+            for (String band : reachableBands(previousResults)) {
+                byBand.put(band, executor.submit(() -> interviewService.speculateAdaptiveQuestion(
+                        skill, nextNumber, previousResults, pendingQuestion, band)));
+                launched.increment();
+            }
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+        }
+        Speculation previous = speculations.put(sessionId, new Speculation(nextNumber, byBand));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * The speculated question {@code questionNumber} for the band {@code previousResults}
+     * put the session in, if one was prepared and generated successfully.
+     */
+    public Optional<AdaptiveQuestionResponse> claim(UUID sessionId, int questionNumber,
+                                                    List<PreviousResult> previousResults) {
+        Speculation speculation = speculations.remove(sessionId);
+        if (speculation == null) {
+            return Optional.empty();
+        }
+        try {
+            if (speculation.questionNumber() != questionNumber) {
+                misses.increment();
+                return Optional.empty();
+            }
+            double avgScore = InterviewService.averageScore(previousResults);
+            String band = InterviewService.difficultyFor(avgScore);
+            Future<GeneratedQuestion> future = speculation.byBand().get(band);
+            if (future == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            // Waiting past the request's deadline is pointless; a miss falls back to a direct call,
+            // which then fails fast with the deadline error
+            long waitMillis = RequestDeadline.budget("speculation", Duration.ofMillis(claimWaitMillis)).toMillis();
+            GeneratedQuestion generated = future.get(waitMillis, TimeUnit.MILLISECONDS);
+            if (generated == null || generated.question() == null || generated.question().isBlank()) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(InterviewService.adaptiveResponse(generated, band, avgScore));
+        } catch (ExecutionException | TimeoutException | CancellationException e) {
+            log.debug("Speculated question for session {} unusable: {}", sessionId, e.toString());
+            misses.increment();
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            speculation.cancel();
+        }
+    }
+
+    public void discard(UUID sessionId) {
+        Speculation speculation = speculations.remove(sessionId);
+        if (speculation != null) {
+            speculation.cancel();
+        }
+    }
+
+    /**
+     * Bands the running average can end up in once one more answer scored 0–10 is added.
+     */
+    static List<String> reachableBands(List<PreviousResult> previousResults) {
+        double sum = 0;
+        int count = 0;
+        for (PreviousResult result : previousResults) {
+            if (result.score() != null) {
+                sum += result.score();
+                count++;
+            }
+        }
+        double lowest = sum / (count + 1);
+        double highest = (sum + 10) / (count + 1);
+        int from = bandIndex(InterviewService.difficultyFor(lowest));
+        int to = bandIndex(InterviewService.difficultyFor(highest));
+        return List.of(BANDS).subList(from, to + 1);
+    }
+
+    private static int bandIndex(String band) {
+        for (int i = 0; i < BANDS.length; i++) {
+            if (BANDS[i].equals(band)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(band);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads of just-written users on the primary until the replica has had time to
+ * catch up. Reads run inside a read-write transaction, which the read-only repository
+ * methods join, so the routing data source hands out a primary connection.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final TransactionTemplate primaryTransaction;
+    private final long windowMillis;
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(PlatformTransactionManager transactionManager,
+                          @Value("${app.datasource.read-your-writes-ms:5000}") long windowMillis) {
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.windowMillis = windowMillis;
+    }
+
+    public void recordWrite(String key) {
+        long now = System.currentTimeMillis();
+        recentWrites.put(key, now + windowMillis);
+        if (recentWrites.size() > 10_000) {
+            recentWrites.values().removeIf(until -> until < now);
+        }
+    }
+
+    public boolean isRecent(String key) {
+        Long until = recentWrites.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            recentWrites.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    public <T> T onPrimary(Supplier<T> read) {
+        return primaryTransaction.execute(status -> read.get());
+    }
+}
@@ -0,0 +1,112 @@
+package com.app.demo.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time budget of the request being served, bound to the serving thread by
+ * {@code DeadlineFilter}. Outbound calls ask {@link #budget} for their timeout so each
+ * one only gets what is left; work handed to other threads carries the deadline along
+ * with {@link #callWith}. Outside a request there is no deadline and callers fall back
+ * to their own maximum.
+ */
+public final class RequestDeadline {
+
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    private volatile String exceededStage;
+
+    private RequestDeadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static RequestDeadline start(long budgetMillis) {
+        RequestDeadline deadline = new RequestDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The deadline of the current thread's request, or null.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Timeout for a call made in {@code stage}: the remaining budget capped at {@code max},
+     * or {@code max} when there is no deadline. Throws if the budget is already spent.
+     */
+    public static Duration budget(String stage, Duration max) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return max;
+        }
+        long remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            throw deadline.exceeded(stage);
+        }
+        return Duration.ofMillis(Math.min(remaining, max.toMillis()));
+    }
+
+    public static void check(String stage) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw deadline.exceeded(stage);
+        }
+    }
+
+    /**
+     * Runs {@code work} on this thread with {@code deadline} (may be null) bound, restoring
+     * whatever was bound before.
+     */
+    public static <T, E extends Exception> T callWith(RequestDeadline deadline, Work<T, E> work) throws E {
+        RequestDeadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return work.run();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Records {@code stage} as where the budget ran out (the first one wins) and returns
+     * the exception to throw.
+     */
+    public DeadlineExceededException exceeded(String stage) {
+        if (exceededStage == null) {
+            exceededStage = stage;
+        }
+        return new DeadlineExceededException(stage);
+    }
+
+    /**
+     * The stage that ran out of budget, or null if none did.
+     */
+    public String exceededStage() {
+        return exceededStage;
+    }
+}
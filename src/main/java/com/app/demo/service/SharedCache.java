@@ -0,0 +1,263 @@
+package com.app.demo.service;
+
+import com.app.demo.config.LifecyclePhases;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Optional cluster-wide cache tier in Postgres, behind each instance's in-memory caches,
+ * so instances share expensive upstream results instead of each fetching their own.
+ * Entries live in an UNLOGGED table (no WAL, not replicated, emptied after a crash —
+ * fine for a cache) on the primary. Writes and invalidations are announced with
+ * NOTIFY; every instance LISTENs and drops its local copy of the key, and masks it in
+ * the warm-start snapshot, so the next read picks up the shared value.
+ *
+ * <p>Lookups are counted per tier in {@code cache.tier.lookups}: callers report local
+ * hits, and {@link #get} records the local miss plus the shared-tier outcome.
+ */
+@Component
+@Slf4j
+public class SharedCache implements SmartLifecycle {
+
+    private static final String CHANNEL = "shared_cache";
+
+    public record Entry(byte[] value, long expiresAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource primaryDataSource;
+    private final MeterRegistry meterRegistry;
+    private final CacheSnapshotStore snapshotStore;
+    private final boolean enabled;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> invalidationListeners = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor writer;
+
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+
+    public SharedCache(JdbcTemplate jdbcTemplate,
+                       @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                       MeterRegistry meterRegistry,
+                       CacheSnapshotStore snapshotStore,
+                       @Value("${cache.shared.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.primaryDataSource = primaryDataSource;
+        this.meterRegistry = meterRegistry;
+        this.snapshotStore = snapshotStore;
+        this.enabled = enabled;
+        // Writes are off the request path; if they back up, dropping one only costs a miss elsewhere
+        this.writer = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1000),
+                new CustomizableThreadFactory("shared-cache-"), new ThreadPoolExecutor.DiscardPolicy());
+        this.writer.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers a callback run with the key whenever another instance writes or
+     * invalidates an entry of {@code section}.
+     */
+    public void onInvalidate(String section, Consumer<String> listener) {
+        invalidationListeners.computeIfAbsent(section, s -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void recordLocalHit(String section) {
+        counter(section, "local", "hit").increment();
+    }
+
+    /**
+     * Called after a local miss. Returns the shared entry, or null if the tier is
+     * disabled, has no live entry, or cannot be reached.
+     */
+    public Entry get(String section, String key) {
+        counter(section, "local", "miss").increment();
+        if (!running) {
+            return null;
+        }
+        try {
+            List<Entry> rows = jdbcTemplate.query(
+                    "select value, expires_at from shared_cache where cache_key = ? and expires_at > now()",
+                    (rs, i) -> new Entry(rs.getBytes(1), rs.getTimestamp(2).getTime()),
+                    section + ":" + key);
+            Entry entry = rows.isEmpty() ? null : rows.get(0);
+            counter(section, "shared", entry != null ? "hit" : "miss").increment();
+            return entry;
+        } catch (RuntimeException e) {
+            log.debug("Shared cache read for {} failed: {}", section, e.getMessage());
+            counter(section, "shared", "error").increment();
+            return null;
+        }
+    }
+
+    public void put(String section, String key, byte[] value, long expiresAt) {
+        if (!running) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                jdbcTemplate.update("insert into shared_cache (cache_key, value, expires_at) values (?, ?, ?) " +
+                                "on conflict (cache_key) do update set value = excluded.value, expires_at = excluded.expires_at",
+                        section + ":" + key, value, new Timestamp(expiresAt));
+                notifyChange(section, key);
+            } catch (RuntimeException e) {
+                log.debug("Shared cache write for {} failed: {}", section, e.getMessage());
+            }
+        });
+    }
+
+    public void invalidate(String section, String key) {
+        if (!running) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                jdbcTemplate.update("delete from shared_cache where cache_key = ?", section + ":" + key);
+                notifyChange(section, key);
+            } catch (RuntimeException e) {
+                log.debug("Shared cache invalidation for {} failed: {}", section, e.getMessage());
+            }
+        });
+    }
+
+    private void notifyChange(String section, String key) {
+        // Payload: origin instance, section and key, tab separated (NOTIFY payloads max out near 8 kB)
+        String payload = instanceId + "\t" + section + "\t" + key;
+        if (payload.length() < 7900) {
+            jdbcTemplate.queryForList("select pg_notify(?, ?)", CHANNEL, payload);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.shared.prune-interval-ms:300000}")
+    public void pruneExpired() {
+        if (!running) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("delete from shared_cache where expires_at < now()");
+        } catch (RuntimeException e) {
+            log.warn("Pruning shared cache failed: {}", e.getMessage());
+        }
+    }
+
+    private void listen() {
+        long backoffMillis = 1000;
+        while (running) {
+            try (Connection connection = primaryDataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                backoffMillis = 1000;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(5000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Shared cache listener lost its connection, retrying in {} ms: {}",
+                        backoffMillis, e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 30_000);
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        String[] parts = payload.split("\t", 3);
+        if (parts.length < 3 || parts[0].equals(instanceId)) {
+            return;
+        }
+        snapshotStore.invalidate(parts[1], parts[2]);
+        for (Consumer<String> listener : invalidationListeners.getOrDefault(parts[1], List.of())) {
+            try {
+                listener.accept(parts[2]);
+            } catch (RuntimeException e) {
+                log.warn("Shared cache invalidation listener for {} failed: {}", parts[1], e.getMessage());
+            }
+        }
+    }
+
+    private Counter counter(String section, String tier, String result) {
+        return Counter.builder("cache.tier.lookups")
+                .description("Cache lookups by tier (local memory, shared Postgres)")
+                .tag("cache", section)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("create unlogged table if not exists shared_cache (" +
+                    "cache_key text primary key, value bytea not null, expires_at timestamptz not null)");
+            jdbcTemplate.execute("create index if not exists idx_shared_cache_expires_at on shared_cache (expires_at)");
+        } catch (RuntimeException e) {
+            log.warn("Shared cache tier disabled, table could not be created: {}", e.getMessage());
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "shared-cache-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        log.info("Shared cache tier enabled");
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        writer.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return LifecyclePhases.AROUND_WEB_SERVER;
+    }
+}
@@ -0,0 +1,190 @@
+package com.app.demo.service;
+
+import com.app.demo.repository.UserRepository;
+import com.app.demo.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Warms connections, caches and JIT-compiled hot paths before the instance reports
+ * ready. Spring Boot only moves readiness to ACCEPTING_TRAFFIC once application runners
+ * have returned, so the load balancer keeps real users away until this finishes (or
+ * gives up after {@code app.warmup.timeout-ms}). Steps run concurrently and a failing
+ * step is logged, never fatal.
+ */
+@Component
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+    /**
+     * Marks synthetic requests so first-request metrics ignore them.
+     */
+    public static final String WARMUP_HEADER = "X-Warmup";
+
+    private static final String WARMUP_EMAIL = "warmup@warmup.invalid";
+
+    private final InterviewService interviewService;
+    private final LightcastApiService lightcastApiService;
+    private final EmailService emailService;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+    private final ApplicationContext applicationContext;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int iterations;
+    private final long timeoutMillis;
+
+    public StartupWarmup(InterviewService interviewService,
+                         LightcastApiService lightcastApiService,
+                         EmailService emailService,
+                         UserRepository userRepository,
+                         JwtTokenProvider jwtTokenProvider,
+                         TokenRevocationService tokenRevocationService,
+                         ApplicationContext applicationContext,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.warmup.enabled:true}") boolean enabled,
+                         @Value("${app.warmup.iterations:500}") int iterations,
+                         @Value("${app.warmup.timeout-ms:30000}") long timeoutMillis) {
+        this.interviewService = interviewService;
+        this.lightcastApiService = lightcastApiService;
+        this.emailService = emailService;
+        this.userRepository = userRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
+        this.applicationContext = applicationContext;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(4, new CustomizableThreadFactory("warmup-"));
+        try {
+            List<Future<?>> steps = new ArrayList<>();
+            steps.add(executor.submit(() -> step("postgres", this::warmDatabase)));
+            steps.add(executor.submit(() -> step("groq", () -> interviewService.warmUp(iterations))));
+            steps.add(executor.submit(() -> step("lightcast", lightcastApiService::warmUp)));
+            steps.add(executor.submit(() -> step("ses", emailService::warmUp)));
+            steps.add(executor.submit(() -> step("jwt", this::warmJwt)));
+            steps.add(executor.submit(() -> step("filter-chain", this::warmFilterChain)));
+
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            for (Future<?> step : steps) {
+                try {
+                    step.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    log.warn("Warm-up did not finish within {} ms, reporting ready anyway", timeoutMillis);
+                    break;
+                } catch (ExecutionException e) {
+                    // step() already logged it
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            long elapsed = System.nanoTime() - start;
+            timer("total", "done").record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private void step(String name, Step step) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            step.run();
+        } catch (Exception e) {
+            outcome = "failure";
+            log.warn("Warm-up step {} failed: {}", name, e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(name, outcome).record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Warm-up step {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private void warmDatabase() {
+        // Opens the pool (Hikari then fills it to minimumIdle in the background) and has
+        // Hibernate build the query plans used on every login and authenticated request
+        for (int i = 0; i < 20; i++) {
+            userRepository.findByEmail(WARMUP_EMAIL);
+            userRepository.existsByEmail(WARMUP_EMAIL);
+        }
+    }
+
+    private void warmJwt() {
+        for (int i = 0; i < iterations; i++) {
+            Claims claims = jwtTokenProvider.parseClaims(jwtTokenProvider.generateToken(WARMUP_EMAIL));
+            if (claims != null) {
+                tokenRevocationService.isRevoked(claims.getId());
+            }
+        }
+    }
+
+    /**
+     * Sends synthetic requests through the real servlet filter chain: an open probe and an
+     * authenticated route with a well-formed token whose signature does not verify, which
+     * runs JWT parsing and the security rules and ends in a 401.
+     */
+    private void warmFilterChain() throws Exception {
+        if (!(applicationContext instanceof WebServerApplicationContext web) || web.getWebServer() == null) {
+            return;
+        }
+        String base = "http://localhost:" + web.getWebServer().getPort();
+        String token = jwtTokenProvider.generateToken(WARMUP_EMAIL);
+        String forged = token.substring(0, token.length() - 4) + "AAAA";
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(base + "/actuator/health/liveness"))
+                .header(WARMUP_HEADER, "true")
+                .build();
+        HttpRequest authenticated = HttpRequest.newBuilder(URI.create(base + "/api/analytics/me"))
+                .header(WARMUP_HEADER, "true")
+                .header("Authorization", "Bearer " + forged)
+                .build();
+        int rounds = Math.max(1, iterations / 10);
+        for (int i = 0; i < rounds; i++) {
+            client.send(probe, HttpResponse.BodyHandlers.discarding());
+            client.send(authenticated, HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private Timer timer(String step, String outcome) {
+        return Timer.builder("app.warmup")
+                .description("Startup warm-up duration by step")
+                .tag("step", step)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,228 @@
+package com.app.demo.service;
+
+import com.app.demo.audio.OggOpusWriter;
+import com.app.demo.audio.OpusPackets;
+import com.app.demo.audio.PauseSegmenter;
+import com.app.demo.audio.PcmFramer;
+import com.app.demo.audio.WavWriter;
+import com.app.demo.audio.WebmOpusDemuxer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * One in-progress streamed answer. Audio chunks are pushed in as they arrive, cut into
+ * segments at pauses, and each segment's transcription is started immediately. The
+ * transcripts are stitched back together in segment order by {@link #finish()}.
+ * An answer longer, larger or more fragmented than its {@link Limits} is refused with a
+ * {@link LimitExceededException} instead of starting more uploads.
+ * Not thread-safe: chunks for one answer must be fed from a single thread.
+ */
+public final class StreamingTranscription {
+
+    public enum Format {
+        WEBM, PCM16
+    }
+
+    private final Function<Segment, CompletableFuture<String>> transcriber;
+    private final BiConsumer<Integer, String> segmentListener;
+    private final Limits limits;
+    private final int sampleRate;
+    private final List<CompletableFuture<String>> transcripts = new ArrayList<>();
+
+    private final WebmOpusDemuxer demuxer;
+    private final PcmFramer framer;
+    private final PauseSegmenter<?> segmenter;
+    private byte[] opusHead;
+    private int pendingByte = -1;
+    private float[] pcmScratch = new float[0];
+    private long bytesReceived;
+    private double audioMillis;
+    private boolean segmentLimitHit;
+
+    public record Segment(int index, byte[] audio, String filename) {
+    }
+
+    /**
+     * The answer went over one of its {@link Limits}; no further segments are uploaded.
+     */
+    public static final class LimitExceededException extends IOException {
+
+        LimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    StreamingTranscription(Format format, int sampleRate, AudioPreprocessor preprocessor,
+                           SegmentSettings settings, Limits limits,
+                           Function<Segment, CompletableFuture<String>> transcriber,
+                           BiConsumer<Integer, String> segmentListener) {
+        this.transcriber = transcriber;
+        this.segmentListener = segmentListener;
+        this.limits = limits;
+        this.sampleRate = sampleRate;
+
+        if (format == Format.WEBM) {
+            PauseSegmenter<byte[]> opusSegmenter = new PauseSegmenter<>(preprocessor.opusDetector(),
+                    this::opusEncoder, audio -> submit(audio, "segment.ogg"),
+                    settings.pauseMillis(), settings.minSpeechMillis(), settings.maxSegmentMillis(),
+                    settings.preRollFrames());
+            this.segmenter = opusSegmenter;
+            this.framer = null;
+            this.demuxer = new WebmOpusDemuxer(new WebmOpusDemuxer.Listener() {
+                @Override
+                public void onHeader(byte[] head) {
+                    opusHead = head;
+                }
+
+                @Override
+                public void onPacket(byte[] packet) {
+                    int samples = OpusPackets.samples(packet, 0, packet.length);
+                    audioMillis += samples / 48.0;
+                    opusSegmenter.accept(packet, AudioPreprocessor.opusLevel(packet, samples), samples / 48.0);
+                }
+            });
+        } else {
+            PauseSegmenter<short[]> pcmSegmenter = new PauseSegmenter<>(preprocessor.pcmDetector(),
+                    StreamingTranscription::wavEncoder, audio -> submit(audio, "segment.wav"),
+                    settings.pauseMillis(), settings.minSpeechMillis(), settings.maxSegmentMillis(),
+                    settings.preRollFrames());
+            this.segmenter = pcmSegmenter;
+            this.demuxer = null;
+            this.framer = new PcmFramer(sampleRate,
+                    frame -> pcmSegmenter.accept(frame, PcmFramer.rms(frame), PcmFramer.FRAME_MILLIS));
+        }
+    }
+
+    public void accept(byte[] chunk) throws IOException {
+        bytesReceived += chunk.length;
+        if (bytesReceived > limits.maxBytes()) {
+            throw new LimitExceededException("Answer exceeds " + limits.maxBytes() / (1024 * 1024) + " MB of audio");
+        }
+        if (demuxer != null) {
+            demuxer.feed(chunk, 0, chunk.length);
+        } else {
+            acceptPcm(chunk);
+        }
+        if (audioMillis > limits.maxAnswerMillis()) {
+            throw new LimitExceededException("Answer exceeds " + limits.maxAnswerMillis() / 1000 + " s");
+        }
+        if (segmentLimitHit) {
+            throw new LimitExceededException("Answer exceeds " + limits.maxSegments() + " segments");
+        }
+    }
+
+    private void acceptPcm(byte[] chunk) {
+        // 16-bit little-endian mono; a sample may straddle two chunks
+        int offset = 0;
+        int available = chunk.length + (pendingByte >= 0 ? 1 : 0);
+        int count = available / 2;
+        if (pcmScratch.length < count) {
+            pcmScratch = new float[count];
+        }
+        int i = 0;
+        if (pendingByte >= 0 && chunk.length > 0) {
+            pcmScratch[i++] = (short) (pendingByte | (chunk[0] << 8)) / 32768f;
+            offset = 1;
+            pendingByte = -1;
+        }
+        for (; i < count; i++, offset += 2) {
+            pcmScratch[i] = (short) ((chunk[offset] & 0xFF) | (chunk[offset + 1] << 8)) / 32768f;
+        }
+        if (offset < chunk.length) {
+            pendingByte = chunk[offset] & 0xFF;
+        }
+        audioMillis += count * 1000.0 / sampleRate;
+        framer.accept(pcmScratch, count);
+    }
+
+    /**
+     * Flushes the last segment and completes with the stitched transcript once every
+     * segment has been transcribed.
+     */
+    public CompletableFuture<String> finish() {
+        if (framer != null) {
+            framer.finish();
+        }
+        segmenter.finish();
+        CompletableFuture<?>[] all = transcripts.toArray(new CompletableFuture<?>[0]);
+        return CompletableFuture.allOf(all).thenApply(ignored -> {
+            StringBuilder stitched = new StringBuilder();
+            for (CompletableFuture<String> part : transcripts) {
+                String text = part.join();
+                if (!text.isBlank()) {
+                    if (stitched.length() > 0) stitched.append(' ');
+                    stitched.append(text.trim());
+                }
+            }
+            return stitched.toString();
+        });
+    }
+
+    public void cancel() {
+        transcripts.forEach(f -> f.cancel(true));
+    }
+
+    public int segmentCount() {
+        return transcripts.size();
+    }
+
+    private void submit(byte[] audio, String filename) {
+        if (transcripts.size() >= limits.maxSegments()) {
+            segmentLimitHit = true;
+            return;
+        }
+        int index = transcripts.size();
+        CompletableFuture<String> submitted;
+        try {
+            submitted = transcriber.apply(new Segment(index, audio, filename));
+        } catch (RejectedExecutionException e) {
+            // Pool saturated: leave a gap for this segment and keep the socket open
+            submitted = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<String> transcript = submitted.exceptionally(e -> "");
+        transcript.thenAccept(text -> segmentListener.accept(index, text));
+        transcripts.add(transcript);
+    }
+
+    private PauseSegmenter.SegmentEncoder<byte[]> opusEncoder() {
+        OggOpusWriter writer = new OggOpusWriter(opusHead != null ? opusHead : OpusPackets.defaultHead(1), 16 * 1024);
+        return new PauseSegmenter.SegmentEncoder<>() {
+            @Override
+            public void write(byte[] packet) {
+                writer.write(packet, OpusPackets.samples(packet, 0, packet.length));
+            }
+
+            @Override
+            public byte[] finish() {
+                return writer.finish();
+            }
+        };
+    }
+
+    private static PauseSegmenter.SegmentEncoder<short[]> wavEncoder() {
+        WavWriter writer = new WavWriter(64 * 1024);
+        return new PauseSegmenter.SegmentEncoder<>() {
+            @Override
+            public void write(short[] frame) {
+                writer.write(frame);
+            }
+
+            @Override
+            public byte[] finish() {
+                return writer.finish();
+            }
+        };
+    }
+
+    record SegmentSettings(double pauseMillis, double minSpeechMillis, double maxSegmentMillis, int preRollFrames) {
+    }
+
+    record Limits(long maxAnswerMillis, int maxSegments, long maxBytes) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.demo.service;
+
+import com.app.demo.model.dto.AnswerResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Creates {@link StreamingTranscription}s for the interview WebSocket and owns the bounded
+ * pool their segment uploads run on. A full queue fails the segment rather than blocking
+ * the socket thread; the missing piece then shows up as a gap in the transcript. Each
+ * answer is capped in length, size and segment count so one socket cannot keep
+ * starting uploads.
+ */
+@Service
+@Slf4j
+public class StreamingTranscriptionService {
+
+    private final InterviewService interviewService;
+    private final AudioPreprocessor audioPreprocessor;
+    private final StreamingTranscription.SegmentSettings settings;
+    private final StreamingTranscription.Limits limits;
+    private final ThreadPoolExecutor executor;
+
+    public StreamingTranscriptionService(InterviewService interviewService,
+                                         AudioPreprocessor audioPreprocessor,
+                                         @Value("${interview.streaming.pause-ms:600}") double pauseMillis,
+                                         @Value("${interview.streaming.min-speech-ms:1000}") double minSpeechMillis,
+                                         @Value("${interview.streaming.max-segment-ms:15000}") double maxSegmentMillis,
+                                         @Value("${interview.streaming.pre-roll-ms:200}") int preRollMillis,
+                                         @Value("${interview.streaming.max-answer-ms:600000}") long maxAnswerMillis,
+                                         @Value("${interview.streaming.max-segments:200}") int maxSegments,
+                                         @Value("${interview.streaming.max-bytes:67108864}") long maxBytes,
+                                         @Value("${interview.streaming.threads:8}") int threads,
+                                         @Value("${interview.streaming.queue-capacity:200}") int queueCapacity) {
+        this.interviewService = interviewService;
+        this.audioPreprocessor = audioPreprocessor;
+        this.settings = new StreamingTranscription.SegmentSettings(
+                pauseMillis, minSpeechMillis, maxSegmentMillis, preRollMillis / 20);
+        this.limits = new StreamingTranscription.Limits(maxAnswerMillis, maxSegments, maxBytes);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("transcribe-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public StreamingTranscription start(StreamingTranscription.Format format, int sampleRate,
+                                        BiConsumer<Integer, String> segmentListener) {
+        return new StreamingTranscription(format, sampleRate, audioPreprocessor, settings, limits,
+                segment -> CompletableFuture.supplyAsync(
+                        () -> interviewService.transcribe(segment.audio(), segment.filename()), executor),
+                segmentListener);
+    }
+
+    public CompletableFuture<AnswerResult> score(String question, CompletableFuture<String> transcript) {
+        return transcript.thenApplyAsync(text -> interviewService.scoreAnswer(question, text), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,147 @@
+package com.app.demo.service;
+
+import com.app.demo.config.LifecyclePhases;
+import com.app.demo.model.RevokedToken;
+import com.app.demo.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked JWT ids. Every authenticated request asks {@link #isRevoked(String)}, which is
+ * answered from memory: a Bloom filter rules out almost every live token with a few bit
+ * probes, and only filter hits are confirmed against the exact set. The revoked_tokens
+ * table is the source of truth; it is loaded before the web server starts, polled for
+ * revocations made by other instances, and pruned together with memory once tokens
+ * would have expired anyway.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService implements SmartLifecycle {
+
+    private final RevokedTokenRepository repository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+    private volatile boolean running;
+
+    public TokenRevocationService(RevokedTokenRepository repository,
+                                  @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    public void revoke(String jti, String userEmail, Instant expiresAt) {
+        if (expiresAt.isBefore(Instant.now())) {
+            return;
+        }
+        repository.save(RevokedToken.builder()
+                .jti(jti)
+                .userEmail(userEmail)
+                .expiresAt(expiresAt)
+                .revokedAt(Instant.now())
+                .build());
+        remember(jti, expiresAt.toEpochMilli());
+        log.info("Revoked token {} of {}", jti, userEmail);
+    }
+
+    // Serialised with rebuildFilter so a revocation cannot land in a filter that is being
+    // replaced; isRevoked stays lock-free
+    private synchronized void remember(String jti, long expiresAtMillis) {
+        revoked.put(jti, expiresAtMillis);
+        filter.add(jti);
+    }
+
+    /**
+     * Picks up revocations made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        if (!running) {
+            return;
+        }
+        Instant now = Instant.now();
+        // Overlap the window a little so rows committed out of order are not missed
+        Instant since = lastSync.minusSeconds(5);
+        try {
+            for (RevokedToken token : repository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+                remember(token.getJti(), token.getExpiresAt().toEpochMilli());
+            }
+            lastSync = now;
+        } catch (RuntimeException e) {
+            log.warn("Token revocation sync failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval-ms:600000}")
+    public void prune() {
+        if (!running) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt < now);
+        rebuildFilter();
+        try {
+            int deleted = repository.deleteExpired(Instant.ofEpochMilli(now));
+            if (deleted > 0) {
+                log.debug("Pruned {} expired token revocations", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Pruning expired token revocations failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    @Override
+    public void start() {
+        Instant now = Instant.now();
+        List<RevokedToken> tokens = repository.findByExpiresAtAfter(now);
+        for (RevokedToken token : tokens) {
+            revoked.put(token.getJti(), token.getExpiresAt().toEpochMilli());
+        }
+        rebuildFilter();
+        lastSync = now;
+        running = true;
+        log.info("Loaded {} active token revocations", tokens.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return LifecyclePhases.AROUND_WEB_SERVER;
+    }
+}
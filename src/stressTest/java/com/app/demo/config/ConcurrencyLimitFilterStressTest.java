@@ -0,0 +1,138 @@
+package com.app.demo.config;
+
+import com.app.demo.stress.StressHarness;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The limiter's in-flight count and rejection counter are updated from every request
+ * thread: the limit must never be exceeded, and once the load stops every slot must
+ * be back and every rejection accounted for. Async requests keep their slot until they
+ * complete.
+ */
+class ConcurrencyLimitFilterStressTest {
+
+    @Test
+    void fixedLimitIsNeverExceededAndNoUpdateIsLost() throws Exception {
+        int limit = 8;
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limit, limit, limit);
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        LongAdder accepted = new LongAdder();
+        int threads = StressHarness.threads();
+        int iterations = 20_000;
+
+        StressHarness.run("limiter-fixed", threads, iterations, Duration.ofSeconds(120), (thread, iteration) -> {
+            int inFlight = limiter.tryAcquire();
+            if (inFlight < 0) {
+                return;
+            }
+            accepted.increment();
+            int now = holders.incrementAndGet();
+            maxHolders.accumulateAndGet(now, Math::max);
+            Thread.onSpinWait();
+            holders.decrementAndGet();
+            limiter.release(1_000, inFlight);
+        });
+
+        assertThat(maxHolders.get()).isLessThanOrEqualTo(limit);
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(accepted.sum() + limiter.rejected()).isEqualTo((long) threads * iterations);
+    }
+
+    @Test
+    void adaptiveLimitStaysInBoundsThroughTheFilter() throws Exception {
+        int min = 4;
+        int max = 64;
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ObjectMapper(),
+                new UrlBasedCorsConfigurationSource());
+        filter.addGroup("stress", "/api/stress/", 16, min, max, registry);
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        LongAdder shed = new LongAdder();
+        int threads = StressHarness.threads();
+        int iterations = 2000;
+
+        StressHarness.run("limiter-filter", threads, iterations, Duration.ofSeconds(180), (thread, iteration) -> {
+            // Latency swings between fast and slow phases so the limit moves both ways
+            boolean slowPhase = (iteration / 250) % 2 == 1;
+            FilterChain handler = (request, response) -> {
+                int now = holders.incrementAndGet();
+                maxHolders.accumulateAndGet(now, Math::max);
+                try {
+                    if (slowPhase) {
+                        Thread.sleep(ThreadLocalRandom.current().nextInt(1, 3));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    holders.decrementAndGet();
+                }
+            };
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/stress/work"), response, handler);
+            if (response.getStatus() == 503) {
+                shed.increment();
+                assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+            }
+            assertThat(gauge(registry, "http.server.concurrency.limit")).isBetween((double) min, (double) max);
+        });
+
+        assertThat(maxHolders.get()).isLessThanOrEqualTo(max);
+        assertThat(gauge(registry, "http.server.concurrency.inflight")).isZero();
+        assertThat(registry.get("http.server.concurrency.rejected").tag("group", "stress").functionCounter().count())
+                .isEqualTo((double) shed.sum());
+    }
+
+    @Test
+    void asyncRequestsHoldTheirSlotUntilTheyComplete() throws Exception {
+        int limit = 8;
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ObjectMapper(),
+                new UrlBasedCorsConfigurationSource());
+        filter.addGroup("stress", "/api/stress/", limit, limit, limit, registry);
+        Queue<AsyncContext> streaming = new ConcurrentLinkedQueue<>();
+
+        StressHarness.run("limiter-async", StressHarness.threads(), 2000, Duration.ofSeconds(120),
+                (thread, iteration) -> {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stress/stream");
+                    request.setAsyncSupported(true);
+                    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+                    // Published only once the dispatch has returned: a container defers
+                    // completion until then, which the mock does not
+                    if (request.isAsyncStarted()) {
+                        streaming.add(request.getAsyncContext());
+                    }
+                    // Finish some earlier stream, as a response body being written out would
+                    AsyncContext finished = streaming.poll();
+                    if (finished != null) {
+                        finished.complete();
+                    }
+                    assertThat(gauge(registry, "http.server.concurrency.inflight")).isLessThanOrEqualTo(limit);
+                });
+
+        assertThat(gauge(registry, "http.server.concurrency.inflight")).isEqualTo((double) streaming.size());
+        streaming.forEach(AsyncContext::complete);
+        assertThat(gauge(registry, "http.server.concurrency.inflight")).isZero();
+    }
+
+    private static double gauge(SimpleMeterRegistry registry, String name) {
+        return registry.get(name).tag("group", "stress").gauge().value();
+    }
+}
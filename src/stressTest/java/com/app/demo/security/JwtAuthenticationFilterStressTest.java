@@ -0,0 +1,113 @@
+package com.app.demo.security;
+
+import com.app.demo.repository.RevokedTokenRepository;
+import com.app.demo.service.CustomUserDetailsService;
+import com.app.demo.service.TokenRevocationService;
+import com.app.demo.stress.StressHarness;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Requests from many users, with valid, revoked and missing tokens, interleaved on
+ * reused threads: the handler must always see exactly the caller's identity, and no
+ * authentication may survive the request on its thread. Runs the filter behind
+ * {@link SecurityContextHolderFilter}, as in the real chain.
+ */
+class JwtAuthenticationFilterStressTest {
+
+    private static final int USERS = 50;
+
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter jwtFilter;
+    private String[] validTokens;
+    private String[] revokedTokens;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider("stress-test-secret-that-is-long-enough-for-hmac-sha256", 3_600_000);
+        // Stub-only: the mock is called from every worker and need not record invocations
+        CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class, withSettings().stubOnly());
+        when(userDetailsService.loadUserByUsername(anyString())).thenAnswer(invocation -> User
+                .withUsername(invocation.getArgument(0))
+                .password("n/a")
+                .roles("USER")
+                .build());
+        TokenRevocationService revocationService = new TokenRevocationService(mock(RevokedTokenRepository.class),
+                1000, 0.01);
+        revocationService.start();
+        jwtFilter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, revocationService);
+
+        validTokens = new String[USERS];
+        revokedTokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            validTokens[i] = tokenProvider.generateToken(email(i));
+            revokedTokens[i] = tokenProvider.generateToken(email(i));
+            revocationService.revoke(tokenProvider.parseClaims(revokedTokens[i]).getId(), email(i),
+                    Instant.now().plusSeconds(3600));
+        }
+    }
+
+    @Test
+    void everyRequestSeesOnlyItsOwnIdentity() throws Exception {
+        StressHarness.run("jwt-filter", StressHarness.threads(), 2000, Duration.ofSeconds(120),
+                (thread, iteration) -> {
+                    int user = (thread * 31 + iteration) % USERS;
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/analytics/me");
+                    String expected;
+                    switch (iteration % 4) {
+                        case 0 -> expected = null; // no token
+                        case 1 -> {
+                            request.addHeader("Authorization", "Bearer " + revokedTokens[user]);
+                            expected = null;
+                        }
+                        default -> {
+                            request.addHeader("Authorization", "Bearer " + validTokens[user]);
+                            expected = email(user);
+                        }
+                    }
+
+                    AtomicReference<Authentication> seen = new AtomicReference<>();
+                    HttpServlet handler = new HttpServlet() {
+                        @Override
+                        protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                            seen.set(SecurityContextHolder.getContext().getAuthentication());
+                        }
+                    };
+                    new MockFilterChain(handler,
+                            new SecurityContextHolderFilter(new RequestAttributeSecurityContextRepository()),
+                            jwtFilter)
+                            .doFilter(request, new MockHttpServletResponse());
+
+                    Authentication authentication = seen.get();
+                    assertThat(authentication == null ? null : authentication.getName())
+                            .as("identity seen by the handler").isEqualTo(expected);
+                    assertThat(SecurityContextHolder.getContext().getAuthentication())
+                            .as("authentication left on the thread after the request").isNull();
+                });
+    }
+
+    private static String email(int user) {
+        return "user" + user + "@example.com";
+    }
+}
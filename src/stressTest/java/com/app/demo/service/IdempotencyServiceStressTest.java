@@ -0,0 +1,84 @@
+package com.app.demo.service;
+
+import com.app.demo.stress.StressHarness;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Duplicate submissions racing each other, and many keys churning through the bounded
+ * LRU: an operation runs once per live key, and no caller gets another key's result.
+ */
+class IdempotencyServiceStressTest {
+
+    @Test
+    void racingDuplicatesRunTheOperationOnce() throws Exception {
+        IdempotencyService service = service(10_000);
+        byte[] fingerprint = service.fingerprint("same request");
+        AtomicInteger executions = new AtomicInteger();
+        LongAdder replayed = new LongAdder();
+        int threads = StressHarness.threads();
+
+        StressHarness.run("idempotency-duplicates", threads, 1, Duration.ofSeconds(30), (thread, iteration) -> {
+            IdempotencyService.Result<String> result = service.execute("user@example.com", "answer", "key-1",
+                    fingerprint, () -> {
+                        executions.incrementAndGet();
+                        sleep(50);
+                        return "scored";
+                    });
+            assertThat(result.value()).isEqualTo("scored");
+            if (result.replayed()) {
+                replayed.increment();
+            }
+        });
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(replayed.sum()).isEqualTo(threads - 1);
+    }
+
+    @Test
+    void churningKeysNeverMixUpResults() throws Exception {
+        int keys = 500;
+        IdempotencyService service = service(64);
+        AtomicInteger[] executions = new AtomicInteger[keys];
+        for (int i = 0; i < keys; i++) {
+            executions[i] = new AtomicInteger();
+        }
+
+        StressHarness.Report report = StressHarness.run("idempotency-churn", StressHarness.threads(), 5000,
+                Duration.ofSeconds(120), (thread, iteration) -> {
+                    int key = (thread * 7919 + iteration * 31) % keys;
+                    IdempotencyService.Result<String> result = service.execute("user@example.com", "answer",
+                            "key-" + key, service.fingerprint("body-" + key), () -> {
+                                executions[key].incrementAndGet();
+                                return "result-" + key;
+                            });
+                    assertThat(result.value()).isEqualTo("result-" + key);
+                });
+
+        long total = 0;
+        for (AtomicInteger count : executions) {
+            total += count.get();
+        }
+        // Evicted keys run again, so executions fall between one per key and one per call
+        assertThat(total).isBetween((long) keys, report.operations());
+    }
+
+    private static IdempotencyService service(int maxEntries) {
+        return new IdempotencyService(new ObjectMapper(), new SimpleMeterRegistry(), 3600, maxEntries, 255, 30_000);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
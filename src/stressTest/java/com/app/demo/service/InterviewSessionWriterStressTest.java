@@ -0,0 +1,125 @@
+package com.app.demo.service;
+
+import com.app.demo.model.InterviewAnswer;
+import com.app.demo.model.InterviewSession;
+import com.app.demo.repository.InterviewAnswerRepository;
+import com.app.demo.repository.InterviewSessionRepository;
+import com.app.demo.stress.StressHarness;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Answers queued from many request threads while the flusher drains them and a share of
+ * flushes fail: no answer is lost or saved twice, and a session never reads as clean
+ * (evictable) while one of its answers is still unsaved.
+ */
+class InterviewSessionWriterStressTest {
+
+    @Test
+    void noAnswerIsLostAndSessionsStayDirtyUntilSaved() throws Exception {
+        Set<UUID> saved = ConcurrentHashMap.newKeySet();
+        Map<UUID, AtomicInteger> savedBySession = new ConcurrentHashMap<>();
+        LongAdder duplicates = new LongAdder();
+        LongAdder failedFlushes = new LongAdder();
+        InterviewAnswerRepository answerRepository = mock(InterviewAnswerRepository.class);
+        when(answerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<InterviewAnswer> answers = invocation.getArgument(0);
+            if (!answers.isEmpty() && ThreadLocalRandom.current().nextInt(10) == 0) {
+                failedFlushes.increment();
+                throw new TransientDataAccessResourceException("injected flush failure");
+            }
+            for (InterviewAnswer answer : answers) {
+                if (!saved.add(answer.getId())) {
+                    duplicates.increment();
+                }
+                savedBySession.computeIfAbsent(answer.getSessionId(), id -> new AtomicInteger()).incrementAndGet();
+            }
+            return answers;
+        });
+        InterviewSessionWriter writer = new InterviewSessionWriter(
+                mock(InterviewSessionRepository.class, withSettings().stubOnly()), answerRepository,
+                mock(InterviewAnalyticsService.class, withSettings().stubOnly()),
+                new TransactionTemplate(mock(PlatformTransactionManager.class, withSettings().stubOnly())), 16);
+        int threads = Math.max(2, StressHarness.threads());
+        int iterations = 2000;
+        ActiveInterviewSession[] sessions = new ActiveInterviewSession[threads];
+        int[] enqueued = new int[threads];
+        for (int t = 1; t < threads; t++) {
+            sessions[t] = session();
+        }
+
+        StressHarness.run("session-writer", threads, iterations, Duration.ofSeconds(120), (thread, iteration) -> {
+            if (thread == 0) {
+                writer.flush();
+                return;
+            }
+            ActiveInterviewSession session = sessions[thread];
+            writer.enqueueAnswer(session, answer(session.id(), iteration));
+            enqueued[thread]++;
+            // Read the dirty flag first: the answer is recorded as saved before the writer clears it
+            boolean dirty = writer.isDirty(session.id());
+            int savedSoFar = savedCount(savedBySession, session.id());
+            if (!dirty) {
+                assertThat(savedSoFar).as("answers saved when session %s read clean", session.id())
+                        .isEqualTo(enqueued[thread]);
+            }
+        });
+
+        for (int attempt = 0; attempt < 100 && saved.size() < (threads - 1) * iterations; attempt++) {
+            writer.flush();
+        }
+        System.out.printf("[stress] session-writer: %d answers saved, %d flushes failed and retried%n",
+                saved.size(), failedFlushes.sum());
+        assertThat(duplicates.sum()).as("answers saved twice").isZero();
+        assertThat(saved).as("answers saved").hasSize((threads - 1) * iterations);
+        for (int t = 1; t < threads; t++) {
+            assertThat(writer.isDirty(sessions[t].id())).as("session %d dirty after the final flush", t).isFalse();
+        }
+    }
+
+    private static int savedCount(Map<UUID, AtomicInteger> savedBySession, UUID sessionId) {
+        AtomicInteger count = savedBySession.get(sessionId);
+        return count != null ? count.get() : 0;
+    }
+
+    private static ActiveInterviewSession session() {
+        InterviewSession session = InterviewSession.builder()
+                .id(UUID.randomUUID())
+                .userEmail("user@example.com")
+                .skill("java")
+                .status(InterviewSession.Status.ACTIVE)
+                .questionNumber(1)
+                .build();
+        return new ActiveInterviewSession(session, List.of());
+    }
+
+    private static InterviewAnswer answer(UUID sessionId, int number) {
+        return InterviewAnswer.builder()
+                .id(UUID.randomUUID())
+                .sessionId(sessionId)
+                .questionNumber(number)
+                .question("q-" + number)
+                .score(5)
+                .answeredAt(Instant.now())
+                .build();
+    }
+}
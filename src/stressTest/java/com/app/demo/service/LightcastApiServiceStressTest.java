@@ -0,0 +1,110 @@
+package com.app.demo.service;
+
+import com.app.demo.stress.FakeUpstream;
+import com.app.demo.stress.StressHarness;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-flight {@code loading} map and the LRU response cache behind every Lightcast
+ * lookup: callers racing for the same URL share one upstream fetch, and evictions and
+ * snapshot writes running alongside never hand a caller a corrupted or foreign body.
+ */
+class LightcastApiServiceStressTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void racingCallersShareOneFetchPerUrl() throws Exception {
+        int urls = 16;
+        try (FakeUpstream token = FakeUpstream.start(Duration.ZERO, LightcastApiServiceStressTest::token);
+             FakeUpstream api = FakeUpstream.start(Duration.ofMillis(50), LightcastApiServiceStressTest::body)) {
+            LightcastApiService service = apiService(token, api, 1000, false);
+            Map<String, Set<String>> bodiesByUrl = new ConcurrentHashMap<>();
+
+            StressHarness.run("lightcast-inflight", StressHarness.threads(), 200, Duration.ofSeconds(60),
+                    (thread, iteration) -> {
+                        String id = "KS" + (thread + iteration) % urls;
+                        String body = new String(service.getSkillById(id).body(), StandardCharsets.UTF_8);
+                        bodiesByUrl.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(body);
+                    });
+
+            // A fetch started after another one for the same URL had finished is a duplicate
+            assertThat(api.hits()).as("upstream fetches").isEqualTo(urls);
+            assertThat(bodiesByUrl).hasSize(urls);
+            bodiesByUrl.forEach((id, bodies) -> assertThat(bodies).as("bodies seen for %s", id).hasSize(1));
+        }
+    }
+
+    @Test
+    void evictionsAndSnapshotWritesKeepBodiesIntact() throws Exception {
+        int urls = 200;
+        int maxEntries = 32;
+        try (FakeUpstream token = FakeUpstream.start(Duration.ZERO, LightcastApiServiceStressTest::token);
+             FakeUpstream api = FakeUpstream.start(Duration.ofMillis(2), LightcastApiServiceStressTest::body)) {
+            CacheSnapshotStore snapshotStore = snapshotStore(true);
+            LightcastApiService service = apiService(token, api, maxEntries, snapshotStore);
+            Map<String, Set<String>> ownersByBody = new ConcurrentHashMap<>();
+            int threads = Math.max(2, StressHarness.threads());
+            int iterations = 300;
+
+            StressHarness.run("lightcast-lru", threads, iterations, Duration.ofSeconds(120), (thread, iteration) -> {
+                if (thread == 0) {
+                    // The snapshot collector iterates the access-ordered map while lookups reorder it
+                    snapshotStore.write();
+                    return;
+                }
+                String id = "KS" + (thread * 31 + iteration * 7) % urls;
+                String body = new String(service.getSkillById(id).body(), StandardCharsets.UTF_8);
+                assertThat(body).startsWith("{\"sequence\":").endsWith("}");
+                ownersByBody.computeIfAbsent(body, k -> ConcurrentHashMap.newKeySet()).add(id);
+            });
+
+            // Every response has a unique sequence number, so one body served for two URLs is a mix-up
+            ownersByBody.forEach((body, ids) -> assertThat(ids).as("URLs served %s", body).hasSize(1));
+            assertThat(api.hits()).as("upstream fetches")
+                    .isGreaterThanOrEqualTo(urls)
+                    .isLessThanOrEqualTo((threads - 1) * iterations);
+        }
+    }
+
+    private LightcastApiService apiService(FakeUpstream token, FakeUpstream api, int maxEntries, boolean snapshots) {
+        return apiService(token, api, maxEntries, snapshotStore(snapshots));
+    }
+
+    private LightcastApiService apiService(FakeUpstream token, FakeUpstream api, int maxEntries,
+                                           CacheSnapshotStore snapshotStore) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SharedCache sharedCache = new SharedCache(null, null, registry, snapshotStore, false);
+        LightcastTokenService tokenService = new LightcastTokenService("client", "secret",
+                token.url("/oauth/token"), 3_600_000, new RestTemplateBuilder(), snapshotStore, sharedCache, 5000);
+        return new LightcastApiService(tokenService, new RestTemplateBuilder(), new ObjectMapper(), snapshotStore,
+                sharedCache, api.url(""), 3600, 300, maxEntries, 1024, 4, 100, 10_000, 5000);
+    }
+
+    private CacheSnapshotStore snapshotStore(boolean enabled) {
+        return new CacheSnapshotStore(new SimpleMeterRegistry(), enabled,
+                tempDir.resolve("snapshot").toString(), 0);
+    }
+
+    private static String token(int sequence) {
+        return "{\"access_token\":\"token-" + sequence + "\",\"expires_in\":3600,\"token_type\":\"Bearer\"}";
+    }
+
+    private static String body(int sequence) {
+        return "{\"sequence\":" + sequence + "}";
+    }
+}
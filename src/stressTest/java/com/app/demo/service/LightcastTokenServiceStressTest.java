@@ -0,0 +1,87 @@
+package com.app.demo.service;
+
+import com.app.demo.stress.FakeUpstream;
+import com.app.demo.stress.StressHarness;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code cachedToken} and {@code tokenExpiryTime} are shared by every Lightcast call:
+ * a burst of callers must cause one refresh, and no caller may see an older token after
+ * a newer one was handed out.
+ */
+class LightcastTokenServiceStressTest {
+
+    // The service refreshes a minute before the configured expiry
+    private static final long REFRESH_MARGIN_MILLIS = 60_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void burstOfColdCallersRefreshesOnce() throws Exception {
+        try (FakeUpstream upstream = FakeUpstream.start(Duration.ofMillis(100), FakeUpstreamTokens::token)) {
+            LightcastTokenService service = tokenService(upstream, REFRESH_MARGIN_MILLIS + 600_000);
+            Set<String> seen = ConcurrentHashMap.newKeySet();
+
+            StressHarness.run("lightcast-token-cold", StressHarness.threads(), 1, Duration.ofSeconds(30),
+                    (thread, iteration) -> seen.add(service.getAccessToken()));
+
+            assertThat(upstream.hits()).as("token requests").isEqualTo(1);
+            assertThat(seen).containsExactly("token-1");
+        }
+    }
+
+    @Test
+    void expiringTokenIsRefreshedOnceAndNeverGoesBackwards() throws Exception {
+        long lifetimeMillis = 200;
+        try (FakeUpstream upstream = FakeUpstream.start(Duration.ofMillis(20), FakeUpstreamTokens::token)) {
+            LightcastTokenService service = tokenService(upstream, REFRESH_MARGIN_MILLIS + lifetimeMillis);
+            int threads = StressHarness.threads();
+            int[] lastSeen = new int[threads];
+
+            StressHarness.Report report = StressHarness.run("lightcast-token-expiry", threads, 1500,
+                    Duration.ofSeconds(60), (thread, iteration) -> {
+                        int generation = FakeUpstreamTokens.generation(service.getAccessToken());
+                        assertThat(generation).as("token generation seen by thread %d", thread)
+                                .isGreaterThanOrEqualTo(lastSeen[thread]);
+                        lastSeen[thread] = generation;
+                        Thread.sleep(1);
+                    });
+
+            long elapsedMillis = report.elapsedNanos() / 1_000_000;
+            // One refresh per lifetime at most, plus the initial fetch; duplicates would exceed it
+            assertThat(upstream.hits()).as("token requests in %d ms", elapsedMillis)
+                    .isBetween(2, (int) (elapsedMillis / lifetimeMillis) + 2);
+        }
+    }
+
+    private LightcastTokenService tokenService(FakeUpstream upstream, long expiryMillis) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CacheSnapshotStore snapshotStore = new CacheSnapshotStore(registry, false,
+                tempDir.resolve("snapshot").toString(), 0);
+        SharedCache sharedCache = new SharedCache(null, null, registry, snapshotStore, false);
+        return new LightcastTokenService("client", "secret", upstream.url("/oauth/token"), expiryMillis,
+                new RestTemplateBuilder(), snapshotStore, sharedCache, 5000);
+    }
+
+    private static final class FakeUpstreamTokens {
+
+        static String token(int sequence) {
+            return "{\"access_token\":\"token-" + sequence + "\",\"expires_in\":3600,\"token_type\":\"Bearer\"}";
+        }
+
+        static int generation(String token) {
+            return Integer.parseInt(token.substring("token-".length()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.app.demo.service;
+
+import com.app.demo.model.dto.AdaptiveQuestionResponse;
+import com.app.demo.model.dto.PreviousResult;
+import com.app.demo.model.groq.GeneratedQuestion;
+import com.app.demo.stress.StressHarness;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Several requests per session replacing each other's speculations while others claim
+ * them: a claim only ever returns the question generated for its own number and band,
+ * and every replaced or claimed speculation is cancelled rather than left running.
+ */
+class QuestionSpeculatorStressTest {
+
+    @Test
+    void replacedSpeculationsAreCancelledAndNeverClaimedForTheWrongQuestion() throws Exception {
+        AtomicInteger generating = new AtomicInteger();
+        LongAdder interrupted = new LongAdder();
+        InterviewService interviewService = mock(InterviewService.class);
+        when(interviewService.speculateAdaptiveQuestion(anyString(), anyInt(), anyList(), any(), anyString()))
+                .thenAnswer(invocation -> {
+                    int number = invocation.getArgument(1);
+                    String band = invocation.getArgument(4);
+                    generating.incrementAndGet();
+                    try {
+                        Thread.sleep(ThreadLocalRandom.current().nextInt(5, 30));
+                        return new GeneratedQuestion("q-" + number + "-" + band, band);
+                    } catch (InterruptedException e) {
+                        interrupted.increment();
+                        throw e;
+                    } finally {
+                        generating.decrementAndGet();
+                    }
+                });
+        QuestionSpeculator speculator = new QuestionSpeculator(interviewService, new SimpleMeterRegistry(),
+                true, 6, 60, 1000);
+        int sessions = 4;
+        UUID[] ids = new UUID[sessions];
+        for (int i = 0; i < sessions; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        LongAdder claimed = new LongAdder();
+
+        StressHarness.run("question-speculator", StressHarness.threads(), 300, Duration.ofSeconds(120),
+                (thread, iteration) -> {
+                    UUID session = ids[thread % sessions];
+                    int number = iteration % 5 + 1;
+                    List<PreviousResult> previous = List.of(new PreviousResult("q", (double) (thread % 11)));
+                    if (iteration % 2 == 0) {
+                        speculator.speculate(session, "java", number, previous, "pending-" + number);
+                        return;
+                    }
+                    Optional<AdaptiveQuestionResponse> response = speculator.claim(session, number, previous);
+                    if (response.isPresent()) {
+                        String band = InterviewService.difficultyFor(InterviewService.averageScore(previous));
+                        assertThat(response.get().question()).isEqualTo("q-" + number + "-" + band);
+                        claimed.increment();
+                    }
+                });
+
+        for (UUID id : ids) {
+            speculator.discard(id);
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (generating.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        System.out.printf("[stress] question-speculator: %d claimed, %d generations interrupted%n",
+                claimed.sum(), interrupted.sum());
+        assertThat(generating.get()).as("generations still running after every speculation was dropped")
+                .isZero();
+        assertThat(interrupted.sum()).as("replaced speculations cancelled").isPositive();
+        speculator.shutdown();
+    }
+}
@@ -0,0 +1,52 @@
+package com.app.demo.service;
+
+import com.app.demo.repository.RevokedTokenRepository;
+import com.app.demo.stress.StressHarness;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Revocations racing the Bloom filter rebuild done by {@link TokenRevocationService#prune()}:
+ * once {@code revoke} has returned, the token must read as revoked, whichever filter
+ * the revocation landed in.
+ */
+class TokenRevocationServiceStressTest {
+
+    @Test
+    void revocationIsNeverLostToAConcurrentRebuild() throws Exception {
+        // A small expected size so rebuilds happen while the filter is well populated
+        TokenRevocationService service = new TokenRevocationService(
+                mock(RevokedTokenRepository.class, withSettings().stubOnly()), 1000, 0.01);
+        service.start();
+        int threads = Math.max(2, StressHarness.threads());
+        int iterations = 2000;
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+
+        StressHarness.run("token-revocation", threads, iterations, Duration.ofSeconds(120), (thread, iteration) -> {
+            if (thread == 0) {
+                service.prune();
+                return;
+            }
+            String jti = thread + "-" + iteration;
+            service.revoke(jti, "user" + thread + "@example.com", expiresAt);
+            assertThat(service.isRevoked(jti)).as("%s right after revoke", jti).isTrue();
+            // An earlier revocation of this thread must still be visible after any rebuild since
+            String earlier = thread + "-" + (iteration / 2);
+            assertThat(service.isRevoked(earlier)).as("%s later on", earlier).isTrue();
+        });
+
+        service.prune();
+        for (int thread = 1; thread < threads; thread++) {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                assertThat(service.isRevoked(thread + "-" + iteration)).isTrue();
+            }
+        }
+        assertThat(service.isRevoked("never-revoked")).isFalse();
+    }
+}
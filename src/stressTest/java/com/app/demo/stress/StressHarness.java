@@ -0,0 +1,136 @@
+package com.app.demo.stress;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a task on many threads at once. All workers are released together; the first
+ * failure of any worker fails the run, and if the workers have not finished within the
+ * timeout the run fails with the stacks of any deadlocked threads. Each run prints
+ * throughput and how long workers spent blocked on monitors or waiting.
+ */
+public final class StressHarness {
+
+    @FunctionalInterface
+    public interface Task {
+        void run(int thread, int iteration) throws Exception;
+    }
+
+    public record Report(String name, int threads, long operations, long elapsedNanos,
+                         long blockedCount, long blockedMillis, long waitedMillis) {
+
+        public double opsPerSecond() {
+            return operations / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[stress] %s: %d threads, %d ops in %d ms (%.0f ops/s); " +
+                            "blocked %d times for %d ms, waited %d ms (summed over threads)",
+                    name, threads, operations, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), opsPerSecond(),
+                    blockedCount, blockedMillis, waitedMillis);
+        }
+    }
+
+    private StressHarness() {
+    }
+
+    /**
+     * Thread count for a run, from {@code -Dstress.threads} (default 32).
+     */
+    public static int threads() {
+        return Integer.getInteger("stress.threads", 32);
+    }
+
+    public static Report run(String name, int threads, int iterations, Duration timeout, Task task)
+            throws InterruptedException {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        boolean contention = mx.isThreadContentionMonitoringSupported();
+        if (contention) {
+            mx.setThreadContentionMonitoringEnabled(true);
+        }
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        LongAdder operations = new LongAdder();
+        LongAdder blockedCount = new LongAdder();
+        LongAdder blockedMillis = new LongAdder();
+        LongAdder waitedMillis = new LongAdder();
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                ThreadInfo before = null;
+                try {
+                    ready.countDown();
+                    go.await();
+                    // Baseline after the start latch, so waiting on it does not count as contention
+                    before = contention ? mx.getThreadInfo(Thread.currentThread().getId()) : null;
+                    for (int i = 0; i < iterations && failures.isEmpty(); i++) {
+                        task.run(thread, i);
+                        operations.increment();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    if (before != null) {
+                        ThreadInfo after = mx.getThreadInfo(Thread.currentThread().getId());
+                        blockedCount.add(after.getBlockedCount() - before.getBlockedCount());
+                        blockedMillis.add(Math.max(0, after.getBlockedTime() - before.getBlockedTime()));
+                        waitedMillis.add(Math.max(0, after.getWaitedTime() - before.getWaitedTime()));
+                    }
+                    done.countDown();
+                }
+            }, "stress-" + name + "-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        if (!done.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            String deadlocks = describeDeadlocks(mx);
+            workers.forEach(Thread::interrupt);
+            throw new AssertionError(name + " did not finish within " + timeout + (deadlocks.isEmpty()
+                    ? " (no monitor deadlock detected)"
+                    : "; deadlocked threads:\n" + deadlocks));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError(name + " failed on " + failures.size() + " thread(s)",
+                    failures.peek());
+            failures.stream().skip(1).limit(5).forEach(error::addSuppressed);
+            throw error;
+        }
+        Report report = new Report(name, threads, operations.sum(), elapsed,
+                blockedCount.sum(), blockedMillis.sum(), waitedMillis.sum());
+        System.out.println(report);
+        return report;
+    }
+
+    private static String describeDeadlocks(ThreadMXBean mx) {
+        long[] ids = mx.findDeadlockedThreads();
+        if (ids == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        for (ThreadInfo info : mx.getThreadInfo(ids, true, true)) {
+            out.append(info);
+        }
+        return out.toString();
+    }
+}
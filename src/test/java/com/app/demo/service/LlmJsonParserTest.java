@@ -0,0 +1,122 @@
+package com.app.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LlmJsonParserTest {
+
+    private final LlmJsonParser parser = new LlmJsonParser(new ObjectMapper());
+
+    private JsonNode parse(String content) throws IOException {
+        return parser.parse(content, JsonNode.class);
+    }
+
+    @Test
+    void parsesPlainJson() throws IOException {
+        assertThat(parse("{\"score\": 7, \"feedback\": \"good\"}").get("score").asInt()).isEqualTo(7);
+    }
+
+    @Test
+    void stripsMarkdownFences() throws IOException {
+        JsonNode node = parse("```json\n{\"score\": 7, \"feedback\": \"good\"}\n```");
+        assertThat(node.get("feedback").asText()).isEqualTo("good");
+    }
+
+    @Test
+    void skipsLeadingProse() throws IOException {
+        JsonNode node = parse("Here is the evaluation:\n{\"score\": 4}");
+        assertThat(node.get("score").asInt()).isEqualTo(4);
+    }
+
+    @Test
+    void ignoresTrailingText() throws IOException {
+        JsonNode node = parse("{\"score\": 4} Let me know if you need more detail {or not}.");
+        assertThat(node.get("score").asInt()).isEqualTo(4);
+    }
+
+    @Test
+    void acceptsTrailingCommas() throws IOException {
+        assertThat(parse("{\"questions\": [\"a\", \"b\",],}").get("questions")).hasSize(2);
+    }
+
+    @Test
+    void rejectsOutputWithoutJson() {
+        assertThatThrownBy(() -> parse("I cannot evaluate this answer.")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void keepsPartialTextWhenCutInsideStringValue() throws IOException {
+        JsonNode node = parse("{\"score\": 7, \"feedback\": \"Clear expla");
+        assertThat(node.get("score").asInt()).isEqualTo(7);
+        assertThat(node.get("feedback").asText()).isEqualTo("Clear expla");
+    }
+
+    @Test
+    void dropsHalfWrittenEscapeInStringValue() throws IOException {
+        assertThat(parse("{\"feedback\": \"line\\").get("feedback").asText()).isEqualTo("line");
+        assertThat(parse("{\"feedback\": \"caf\\u00").get("feedback").asText()).isEqualTo("caf");
+        assertThat(parse("{\"feedback\": \"a\\\\").get("feedback").asText()).isEqualTo("a\\");
+    }
+
+    @Test
+    void dropsMemberWhenCutInsideKey() throws IOException {
+        JsonNode node = parse("{\"score\": 7, \"feedb");
+        assertThat(node.get("score").asInt()).isEqualTo(7);
+        assertThat(node.has("feedb")).isFalse();
+    }
+
+    @Test
+    void dropsMemberWhenCutAfterKey() throws IOException {
+        assertThat(parse("{\"score\": 7, \"feedback\"").size()).isEqualTo(1);
+        assertThat(parse("{\"score\": 7, \"feedback\":").size()).isEqualTo(1);
+        assertThat(parse("{\"score\": 7, \"feedback\": ").size()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsTrailingSeparator() throws IOException {
+        assertThat(parse("{\"score\": 7,").get("score").asInt()).isEqualTo(7);
+        assertThat(parse("{\"questions\": [\"a\", ").get("questions")).hasSize(1);
+    }
+
+    @Test
+    void dropsMemberWhenCutInsideLiteral() throws IOException {
+        JsonNode node = parse("{\"score\": 7, \"ok\": tru");
+        assertThat(node.get("score").asInt()).isEqualTo(7);
+        assertThat(node.has("ok")).isFalse();
+    }
+
+    @Test
+    void dropsMemberWhenCutInsideNumber() throws IOException {
+        JsonNode node = parse("{\"feedback\": \"fine\", \"score\": 1");
+        assertThat(node.get("feedback").asText()).isEqualTo("fine");
+        assertThat(node.has("score")).isFalse();
+        assertThat(parse("{\"scores\": [3, 4.").get("scores")).hasSize(1);
+    }
+
+    @Test
+    void closesNestedContainers() throws IOException {
+        JsonNode node = parse("{\"questions\": [{\"q\": \"What is a JVM?\"}, {\"q\": \"Explain G");
+        assertThat(node.get("questions")).hasSize(2);
+        assertThat(node.get("questions").get(1).get("q").asText()).isEqualTo("Explain G");
+    }
+
+    @Test
+    void keepsEmptyContainerWhenCutInsideItsFirstMember() throws IOException {
+        JsonNode node = parse("{\"score\": 5, \"details\": {\"clarity\": tr");
+        assertThat(node.get("score").asInt()).isEqualTo(5);
+        assertThat(node.get("details").isEmpty()).isTrue();
+    }
+
+    @Test
+    void repairsTruncatedOutputAfterFenceAndProse() throws IOException {
+        JsonNode node = parse("Sure!\n```json\n{\"score\": 8, \"feedback\": \"Solid");
+        assertThat(node.get("score").asInt()).isEqualTo(8);
+        assertThat(node.get("feedback").asText()).isEqualTo("Solid");
+    }
+}